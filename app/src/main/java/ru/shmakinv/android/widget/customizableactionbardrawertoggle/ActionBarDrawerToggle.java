@@ -18,13 +18,13 @@
 package ru.shmakinv.android.widget.customizableactionbardrawertoggle;
 
 import android.animation.TimeInterpolator;
-import android.animation.ValueAnimator;
 import android.annotation.TargetApi;
 import android.app.ActionBar;
 import android.app.Activity;
 import android.content.Context;
 import android.content.res.Configuration;
 import android.content.res.TypedArray;
+import android.graphics.Rect;
 import android.graphics.drawable.Drawable;
 import android.os.Build;
 import android.os.Bundle;
@@ -33,11 +33,19 @@ import android.support.annotation.Nullable;
 import android.support.annotation.RequiresApi;
 import android.support.annotation.StringRes;
 import android.support.v4.view.GravityCompat;
+import android.support.v4.view.ViewCompat;
 import android.support.v4.widget.DrawerLayout;
 import android.support.v7.widget.Toolbar;
 import android.util.Log;
+import android.view.Gravity;
 import android.view.MenuItem;
 import android.view.View;
+import android.view.ViewGroup;
+import android.view.ViewTreeObserver;
+import android.view.WindowManager;
+
+import java.util.ArrayList;
+import java.util.Locale;
 
 /**
  * This class provides a handy way to tie together the functionality of
@@ -118,42 +126,191 @@ public class ActionBarDrawerToggle implements DrawerLayout.DrawerListener {
         boolean isNavigationVisible();
     }
 
-    private static final String KEY_DRAWER_POSITION = "LastDrawerPositionInstance";
-    private static final String KEY_INTERPOLATOR_DURATION = "InterpolatorDurationInstance";
-    private static final String KEY_ROTATE_DIRECTION = "RotateDirectionBackInstance";
-    private static final String KEY_AUTO_RESET_ROTATE_DIRECTION = "AutoResetRotateDirectionInstance";
+    /**
+     * Implemented by the internal delegates which accept an already resolved content
+     * description, so the string resource doesn't have to be loaded on every change.
+     */
+    interface DescriptionDelegate {
+
+        /**
+         * Set the Action Bar's up indicator drawable and content description.
+         *
+         * @param upDrawable         - Drawable to set as up indicator
+         * @param contentDescription - Content description to set, null for the default one
+         */
+        void setActionBarUpIndicator(Drawable upDrawable,
+                                     @Nullable CharSequence contentDescription);
+
+        /**
+         * Set the Action Bar's up indicator content description.
+         *
+         * @param contentDescription - Content description to set, null for the default one
+         */
+        void setActionBarDescription(@Nullable CharSequence contentDescription);
+    }
+
+    private static final String KEY_TOGGLE_STATE = "DrawerToggleStateInstance";
     private static final String TAG = "ActionBarDrawerToggle";
     private static final String MESSAGE_NAV_ICON_NOT_VISIBLE = "DrawerToggle may not show up " +
             "because NavigationIcon is not visible. You may need to call actionbar.setDisplayHomeAsUpEnabled(true);";
 
-    private static final float SLIDER_START_POSITION = 0.0F;
-    private static final float SLIDER_END_POSITION = 1.0F;
+    private static final int NO_CONTENT_DESCRIPTION = -1;
+    private static final long NANOS_PER_MILLISECOND = 1000000L;
+    private static final float NANOS_PER_SECOND = 1000000000.0F;
+
+    /**
+     * Animations always run {@link #getInterpolatorDuration()} with the configured interpolator
+     */
+    public static final int COMPLETION_MODE_FIXED = 0;
+
+    /**
+     * Animations continue with the velocity of the last drawer slide and decelerate to the end
+     */
+    public static final int COMPLETION_MODE_VELOCITY = 1;
+
+    // slides older than this don't contribute to the velocity anymore
+    private static final long VELOCITY_TIMEOUT_NANOS = 100L * 1000000L;
+    // slower slides (positions per second) are finished with the fixed animation
+    private static final float MIN_COMPLETION_VELOCITY = 0.5F;
+    private static final long MIN_COMPLETION_DURATION_NANOS = 50L * 1000000L;
+
+    // positions shown while the device is power constrained in adaptive power mode
+    private static final int POWER_SAVE_POSITION_STEPS = 8;
+
+    // the default curve is sampled once and shared by all toggles
+    private static final LookupTableInterpolator DEFAULT_INTERPOLATOR =
+            new LookupTableInterpolator(new MaterialInterpolator());
+
+    private static final int DRAWER_SLOT_START = 0;
+    private static final int DRAWER_SLOT_END = 1;
+
+    private static final float SLIDER_START_POSITION = DrawerToggleState.START_POSITION;
+    private static final float SLIDER_END_POSITION = DrawerToggleState.END_POSITION;
 
     private final Delegate mActivityImpl;
     private final DrawerLayout mDrawerLayout;
 
     private DrawerArrowDrawableCompat mSlider;
     private Drawable mHomeAsUpIndicator;
+    private boolean mHomeAsUpIndicatorResolved;
+    private boolean mDrawerArrowDrawablePoolEnabled;
     private boolean mDrawerIndicatorEnabled = true;
     private boolean mDrawerSlideAnimationEnabled = true;
     private boolean mHasCustomUpIndicator;
 
+    // gravities of the drawers opened and closed by this toggle
+    private int mDrawerGravity = GravityCompat.START;
+    // last slide offsets of the start and end drawers
+    private final float[] mDrawerOffsets = new float[2];
+
     @StringRes
     private final int mOpenDrawerContentDescRes;
     @StringRes
     private final int mCloseDrawerContentDescRes;
+    // resolved content descriptions, dropped when the locale changes
+    private CharSequence mOpenDrawerContentDesc;
+    private CharSequence mCloseDrawerContentDesc;
+    private Locale mContentDescLocale;
+    private boolean mContentDescPending;
+    private final IndicatorFrameDriver.FrameClient mContentDescFrameClient =
+            new IndicatorFrameDriver.FrameClient() {
+                @Override
+                public boolean doIndicatorFrame(long frameTimeNanos) {
+                    mContentDescPending = false;
+                    if (mDrawerIndicatorEnabled) {
+                        setActionBarDescription(getContentDescRes());
+                    }
+                    return false;
+                }
+            };
 
     // used in toolbar mode when DrawerToggle is disabled
     private ToolbarNavigationClickListener mToolbarNavigationClickListener;
+    private final View.OnClickListener mToolbarNavigationOnClickListener =
+            new View.OnClickListener() {
+                @Override
+                public void onClick(View v) {
+                    if (mDrawerIndicatorEnabled) {
+                        toggle();
+                    } else if (mToolbarNavigationClickListener != null) {
+                        mToolbarNavigationClickListener.onClick(v);
+                    }
+                }
+            };
 
     // If developer does not set displayHomeAsUp, DrawerToggle won't show up.
     // DrawerToggle logs a warning if this case is detected
     private boolean mWarnedForDisplayHomeAsUp = false;
 
-    private TimeInterpolator mInterpolator = new MaterialInterpolator();
+    // last indicator and description passed to mActivityImpl, used to skip no-op updates from
+    // the drawer callbacks. Forgotten by syncState(), which always re-applies both
+    private Drawable mAppliedUpIndicator;
+    private int mAppliedContentDescRes = NO_CONTENT_DESCRIPTION;
+    private int mAppliedIndicatorUpdates;
+    private int mSkippedIndicatorUpdates;
+
+    private TimeInterpolator mInterpolator = DEFAULT_INTERPOLATOR.getSource();
+    // sampled copy of mInterpolator which is actually driving the animation
+    private TimeInterpolator mAnimationInterpolator = DEFAULT_INTERPOLATOR;
     private int mInterpolatorDuration = 400;
-    private boolean mRotateDirectionBack = false;
-    private boolean mAutoResetRotateDirection = true;
+    private final DrawerToggleState mState = new DrawerToggleState();
+
+    // indicator animation stepped by the shared IndicatorFrameDriver
+    private boolean mAnimating;
+    private float mAnimationStart;
+    private float mAnimationEnd;
+    private long mAnimationDurationNanos;
+    // animator duration scale mAnimationDurationNanos has been multiplied with
+    private float mAnimationDurationScale = 1.0F;
+    private long mAnimationStartNanos;
+    // linear fraction of the duration to skip once the first frame arrives
+    private float mAnimationSeekFraction;
+    private float mAnimationElapsedFraction;
+    // decelerate with the slide velocity instead of using mAnimationInterpolator
+    private boolean mAnimationDecelerate;
+
+    @CompletionMode
+    private int mCompletionMode = COMPLETION_MODE_FIXED;
+    private boolean mAdaptivePowerModeEnabled;
+    // battery saver or low RAM device, refreshed whenever a drag or an animation starts
+    private boolean mPowerConstrained;
+    // smoothed velocity of the shown drawer offset in positions per second
+    private float mSlideVelocity;
+    private float mLastSlideOffset;
+    private long mLastSlideNanos = -1;
+    private final IndicatorFrameDriver.FrameClient mAnimationFrameClient =
+            new IndicatorFrameDriver.FrameClient() {
+                @Override
+                public boolean doIndicatorFrame(long frameTimeNanos) {
+                    return doAnimationFrame(frameTimeNanos);
+                }
+            };
+
+    private IndicatorStateListener mIndicatorStateListener;
+    private int mDrawerState = DrawerLayout.STATE_IDLE;
+    // state last delivered to mIndicatorStateListener
+    private float mDispatchedPosition = Float.NaN;
+    private int mDispatchedImageState;
+    private int mDispatchedDrawerState;
+    // listener has been called in the current frame, later changes wait for the next one
+    private boolean mIndicatorStateDispatched;
+    private boolean mIndicatorStatePending;
+    private final IndicatorFrameDriver.FrameClient mIndicatorStateFrameClient =
+            new IndicatorFrameDriver.FrameClient() {
+                @Override
+                public boolean doIndicatorFrame(long frameTimeNanos) {
+                    if (mIndicatorStatePending) {
+                        mIndicatorStatePending = false;
+                        dispatchIndicatorState();
+                        return true;
+                    }
+                    mIndicatorStateDispatched = false;
+                    return false;
+                }
+            };
+
+    // null unless a frame metrics listener is set
+    private IndicatorFrameTracker mFrameTracker;
 
     /**
      * Construct a new ActionBarDrawerToggle.
@@ -221,16 +378,7 @@ public class ActionBarDrawerToggle implements DrawerLayout.DrawerListener {
                                  @StringRes int closeDrawerContentDescRes) {
         if (toolbar != null) {
             mActivityImpl = new ToolbarCompatDelegate(toolbar);
-            toolbar.setNavigationOnClickListener(new View.OnClickListener() {
-                @Override
-                public void onClick(View v) {
-                    if (mDrawerIndicatorEnabled) {
-                        toggle();
-                    } else if (mToolbarNavigationClickListener != null) {
-                        mToolbarNavigationClickListener.onClick(v);
-                    }
-                }
-            });
+            toolbar.setNavigationOnClickListener(mToolbarNavigationOnClickListener);
         } else if (activity instanceof DelegateProvider) { // Allow the Activity to provide an impl
             mActivityImpl = ((DelegateProvider) activity).getDrawerToggleDelegate();
         } else if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2) {
@@ -244,13 +392,8 @@ public class ActionBarDrawerToggle implements DrawerLayout.DrawerListener {
         mDrawerLayout = drawerLayout;
         mOpenDrawerContentDescRes = openDrawerContentDescRes;
         mCloseDrawerContentDescRes = closeDrawerContentDescRes;
-        if (slider == null && mActivityImpl != null) {
-            mSlider = new DrawerArrowDrawableCompat(mActivityImpl.getActionBarThemedContext());
-        } else {
-            mSlider = slider;
-        }
-
-        mHomeAsUpIndicator = getThemeUpIndicator();
+        // the default slider and the theme up indicator are resolved on first use
+        mSlider = slider;
     }
 
     /**
@@ -263,28 +406,60 @@ public class ActionBarDrawerToggle implements DrawerLayout.DrawerListener {
      * (For example, if you stop forwarding appropriate drawer events for a period of time.)</p>
      */
     public void syncState(@Nullable Bundle savedInstanceState) {
+        // the Action Bar or Toolbar may have been changed behind the toggle's back
+        forgetAppliedIndicator();
+
         float position = SLIDER_START_POSITION;
+        int imageState = DrawerImageState.TOGGLE_DRAWER_DEFAULT;
+        DrawerToggleSavedState savedState = null;
         if (savedInstanceState != null) {
-            position = (float) savedInstanceState.getInt(KEY_DRAWER_POSITION);
-            mInterpolatorDuration = savedInstanceState.getInt(KEY_INTERPOLATOR_DURATION);
-            mRotateDirectionBack = savedInstanceState.getBoolean(KEY_ROTATE_DIRECTION);
-            mAutoResetRotateDirection = savedInstanceState.getBoolean(KEY_AUTO_RESET_ROTATE_DIRECTION);
+            savedState = savedInstanceState.getParcelable(KEY_TOGGLE_STATE);
+        }
+        if (savedState != null) {
+            position = savedState.position;
+            imageState = savedState.imageState;
+            mInterpolatorDuration = savedState.interpolatorDuration;
+            mState.setRotateDirectionBack(savedState.rotateDirectionBack);
+            mState.setAutoResetRotateDirection(savedState.autoResetRotateDirection);
         }
 
-        this.mSlider.setPosition(position, DrawerImageState.TOGGLE_DRAWER_DEFAULT);
+        getSlider().setPosition(position, imageState);
+        if (mActivityImpl instanceof ToolbarCompatDelegate) {
+            ((ToolbarCompatDelegate) mActivityImpl).setPosition(position, imageState);
+        }
+        mState.invalidate();
+        // DrawerLayout reopens a restored drawer without notifying its listeners
+        mDrawerOffsets[DRAWER_SLOT_START] = mDrawerLayout.isDrawerOpen(GravityCompat.START)
+                ? SLIDER_END_POSITION : SLIDER_START_POSITION;
+        mDrawerOffsets[DRAWER_SLOT_END] = mDrawerLayout.isDrawerOpen(GravityCompat.END)
+                ? SLIDER_END_POSITION : SLIDER_START_POSITION;
 
         if (this.mDrawerIndicatorEnabled) {
-            this.setActionBarUpIndicator(mSlider,
-                    mDrawerLayout.isDrawerOpen(GravityCompat.START) ?
-                            mCloseDrawerContentDescRes : mOpenDrawerContentDescRes);
+            this.setActionBarUpIndicator(getSlider(), getContentDescRes());
+        }
+
+        if (savedState != null && savedState.animating) {
+            // resume the interrupted animation where it has stopped
+            startAnimation(savedState.animationStart, savedState.animationEnd,
+                    savedState.animationDuration * NANOS_PER_MILLISECOND,
+                    savedState.animationElapsedFraction, savedState.animationDecelerate);
         }
     }
 
     public void onSavedInstanceState(Bundle bundle) {
-        bundle.putInt(KEY_DRAWER_POSITION, Math.round(mSlider.getPosition()));
-        bundle.putInt(KEY_INTERPOLATOR_DURATION, mInterpolatorDuration);
-        bundle.putBoolean(KEY_ROTATE_DIRECTION, mRotateDirectionBack);
-        bundle.putBoolean(KEY_AUTO_RESET_ROTATE_DIRECTION, mAutoResetRotateDirection);
+        bundle.putParcelable(KEY_TOGGLE_STATE, new DrawerToggleSavedState(
+                getIndicatorPosition(),
+                mState.getImageState(),
+                mInterpolatorDuration,
+                mState.isRotateDirectionBack(),
+                mState.isAutoResetRotateDirection(),
+                mAnimating,
+                mAnimationStart,
+                mAnimationEnd,
+                // unscaled, the scale is applied again when the animation is resumed
+                (int) (mAnimationDurationNanos / mAnimationDurationScale / NANOS_PER_MILLISECOND),
+                mAnimating ? mAnimationElapsedFraction : 0.0F,
+                mAnimating && mAnimationDecelerate));
     }
 
     /**
@@ -295,10 +470,17 @@ public class ActionBarDrawerToggle implements DrawerLayout.DrawerListener {
      *
      * @param newConfig The new configuration
      */
+    @SuppressWarnings("deprecation")
     public void onConfigurationChanged(Configuration newConfig) {
         // Reload drawables that can change with configuration
         if (!mHasCustomUpIndicator) {
-            mHomeAsUpIndicator = getThemeUpIndicator();
+            mHomeAsUpIndicator = null;
+            mHomeAsUpIndicatorResolved = false;
+        }
+        if (mContentDescLocale != null && !mContentDescLocale.equals(newConfig.locale)) {
+            mOpenDrawerContentDesc = null;
+            mCloseDrawerContentDesc = null;
+            mContentDescLocale = null;
         }
         syncState(null);
     }
@@ -321,37 +503,107 @@ public class ActionBarDrawerToggle implements DrawerLayout.DrawerListener {
     }
 
     private void toggle() {
-        int drawerLockMode = mDrawerLayout.getDrawerLockMode(GravityCompat.START);
-        if (mDrawerLayout.isDrawerVisible(GravityCompat.START)
-                && (drawerLockMode != DrawerLayout.LOCK_MODE_LOCKED_OPEN)) {
-            mDrawerLayout.closeDrawer(GravityCompat.START);
-        } else if (drawerLockMode != DrawerLayout.LOCK_MODE_LOCKED_CLOSED) {
-            mDrawerLayout.openDrawer(GravityCompat.START);
+        if (closeDrawer(GravityCompat.START) || closeDrawer(GravityCompat.END)) {
+            return;
+        }
+        if (!openDrawer(GravityCompat.START)) {
+            openDrawer(GravityCompat.END);
+        }
+    }
+
+    private boolean closeDrawer(int gravity) {
+        if (!isDrawerGravityManaged(gravity) || !mDrawerLayout.isDrawerVisible(gravity)) {
+            return false;
+        }
+        if (mDrawerLayout.getDrawerLockMode(gravity) != DrawerLayout.LOCK_MODE_LOCKED_OPEN) {
+            mDrawerLayout.closeDrawer(gravity);
+        }
+        return true;
+    }
+
+    private boolean openDrawer(int gravity) {
+        if (!isDrawerGravityManaged(gravity)
+                || mDrawerLayout.getDrawerLockMode(gravity) == DrawerLayout.LOCK_MODE_LOCKED_CLOSED) {
+            return false;
+        }
+        mDrawerLayout.openDrawer(gravity);
+        return true;
+    }
+
+    /**
+     * @return gravity of the drawers controlled by this toggle
+     * @see #setDrawerGravity(int)
+     */
+    public int getDrawerGravity() {
+        return mDrawerGravity;
+    }
+
+    /**
+     * Sets which drawers are opened and closed by this toggle. The indicator always follows
+     * the most opened drawer of the linked DrawerLayout.
+     *
+     * @param gravity {@link GravityCompat#START}, {@link GravityCompat#END} or both of them
+     *                combined with a bitwise or. Defaults to {@link GravityCompat#START}.
+     */
+    public void setDrawerGravity(int gravity) {
+        if (gravity != GravityCompat.START && gravity != GravityCompat.END
+                && gravity != (GravityCompat.START | GravityCompat.END)) {
+            throw new IllegalArgumentException("Unsupported drawer gravity: " + gravity);
         }
+        mDrawerGravity = gravity;
+    }
+
+    private boolean isDrawerGravityManaged(int gravity) {
+        return (mDrawerGravity & gravity) == gravity;
+    }
+
+    private boolean isDrawerOpen() {
+        return (isDrawerGravityManaged(GravityCompat.START)
+                && mDrawerLayout.isDrawerOpen(GravityCompat.START))
+                || (isDrawerGravityManaged(GravityCompat.END)
+                && mDrawerLayout.isDrawerOpen(GravityCompat.END));
+    }
+
+    private int getContentDescRes() {
+        return isDrawerOpen() ? mCloseDrawerContentDescRes : mOpenDrawerContentDescRes;
     }
 
     public boolean isRotateDirectionBack() {
-        return mRotateDirectionBack;
+        return mState.isRotateDirectionBack();
     }
 
     public void setRotateDirectionBack(boolean rotateDirectionBack) {
-        this.mRotateDirectionBack = rotateDirectionBack;
+        mState.setRotateDirectionBack(rotateDirectionBack);
     }
 
     public boolean isAutoResetRotateDirection() {
-        return mAutoResetRotateDirection;
+        return mState.isAutoResetRotateDirection();
     }
 
     public void setAutoResetRotateDirection(boolean autoResetRotateDirection) {
-        this.mAutoResetRotateDirection = autoResetRotateDirection;
+        mState.setAutoResetRotateDirection(autoResetRotateDirection);
     }
 
     public TimeInterpolator getInterpolator() {
         return this.mInterpolator;
     }
 
+    /**
+     * Sets the interpolator used by {@link #animateDrawer(float, float)}.
+     * <p>
+     * The interpolator is sampled into a {@link LookupTableInterpolator} with the default
+     * resolution, so it is never evaluated during the animation itself. Pass a
+     * {@link LookupTableInterpolator} to control the resolution yourself.
+     *
+     * @param interpolator interpolator to use
+     */
     public void setInterpolator(TimeInterpolator interpolator) {
         this.mInterpolator = interpolator;
+        if (interpolator == null || interpolator instanceof LookupTableInterpolator) {
+            this.mAnimationInterpolator = interpolator;
+        } else {
+            this.mAnimationInterpolator = new LookupTableInterpolator(interpolator);
+        }
     }
 
     public int getInterpolatorDuration() {
@@ -362,6 +614,88 @@ public class ActionBarDrawerToggle implements DrawerLayout.DrawerListener {
         this.mInterpolatorDuration = interpolatorDuration;
     }
 
+    @CompletionMode
+    public int getCompletionMode() {
+        return mCompletionMode;
+    }
+
+    /**
+     * Sets how {@link #animateDrawer(float, float)} and {@link #toggleIndicator(boolean)}
+     * complete the indicator animation.
+     * <p>
+     * With {@link #COMPLETION_MODE_VELOCITY} an animation started right after a drawer slide
+     * towards the same direction continues with the slide velocity and decelerates to the end,
+     * so it never takes longer than {@link #getInterpolatorDuration()}. Otherwise the fixed
+     * animation is used.
+     *
+     * @param completionMode {@link #COMPLETION_MODE_FIXED} or {@link #COMPLETION_MODE_VELOCITY}
+     * @throws IllegalArgumentException if completionMode is neither of them
+     */
+    public void setCompletionMode(@CompletionMode int completionMode) {
+        if (completionMode != COMPLETION_MODE_FIXED && completionMode != COMPLETION_MODE_VELOCITY) {
+            throw new IllegalArgumentException("Unsupported completion mode: " + completionMode);
+        }
+        this.mCompletionMode = completionMode;
+    }
+
+    public boolean isAdaptivePowerModeEnabled() {
+        return mAdaptivePowerModeEnabled;
+    }
+
+    /**
+     * Enables the adaptive power mode. While battery saver is on, or on low RAM devices, the
+     * indicator only moves in steps of 1/8 of its range during drags and animations instead
+     * of updating on every frame. The animator duration scale is honored regardless of this
+     * mode.
+     *
+     * @param enabled true to reduce indicator updates on constrained devices
+     */
+    public void setAdaptivePowerModeEnabled(boolean enabled) {
+        mAdaptivePowerModeEnabled = enabled;
+        mPowerConstrained = enabled
+                && IndicatorPowerPolicy.isPowerConstrained(mDrawerLayout.getContext());
+    }
+
+    public IndicatorStateListener getIndicatorStateListener() {
+        return mIndicatorStateListener;
+    }
+
+    /**
+     * Sets a listener which receives the indicator position, image state and drawer motion
+     * state from this toggle's {@link DrawerLayout.DrawerListener} callbacks, so no second
+     * DrawerListener is needed. Changes are coalesced to at most one call per frame.
+     *
+     * @param listener listener to notify, or null to remove it
+     */
+    public void setIndicatorStateListener(@Nullable IndicatorStateListener listener) {
+        mIndicatorStateListener = listener;
+        mDispatchedPosition = Float.NaN;
+        mIndicatorStatePending = false;
+    }
+
+    /**
+     * Sets a listener which receives frame metrics of every {@link #animateDrawer(float, float)}
+     * run and of every drawer slide session. Frame times are taken from the
+     * {@link android.view.Choreographer}, so metrics are only reported on API 16 and newer.
+     * Nothing is tracked while no listener is set.
+     *
+     * @param listener listener to report to, or null to stop tracking
+     */
+    public void setFrameMetricsListener(@Nullable IndicatorFrameMetricsListener listener) {
+        if (mFrameTracker != null) {
+            mFrameTracker.end();
+            mFrameTracker = null;
+        }
+        if (listener != null && Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+            final WindowManager windowManager = (WindowManager) mDrawerLayout.getContext()
+                    .getSystemService(Context.WINDOW_SERVICE);
+            final float refreshRate = windowManager != null
+                    ? windowManager.getDefaultDisplay().getRefreshRate()
+                    : 0.0F;
+            mFrameTracker = new IndicatorFrameTracker(listener, refreshRate);
+        }
+    }
+
     /**
      * Set the up indicator to display when the drawer indicator is not
      * enabled.
@@ -375,15 +709,17 @@ public class ActionBarDrawerToggle implements DrawerLayout.DrawerListener {
      */
     public void setHomeAsUpIndicator(Drawable indicator) {
         if (indicator == null) {
-            mHomeAsUpIndicator = getThemeUpIndicator();
+            mHomeAsUpIndicator = null;
+            mHomeAsUpIndicatorResolved = false;
             mHasCustomUpIndicator = false;
         } else {
             mHomeAsUpIndicator = indicator;
+            mHomeAsUpIndicatorResolved = true;
             mHasCustomUpIndicator = true;
         }
 
         if (!mDrawerIndicatorEnabled) {
-            setActionBarUpIndicator(mHomeAsUpIndicator, 0);
+            setActionBarUpIndicator(getHomeAsUpIndicator(), 0);
         }
     }
 
@@ -427,24 +763,40 @@ public class ActionBarDrawerToggle implements DrawerLayout.DrawerListener {
     public void setDrawerIndicatorEnabled(boolean enable) {
         if (enable != mDrawerIndicatorEnabled) {
             if (enable) {
-                setActionBarUpIndicator(
-                        mSlider,
-                        mDrawerLayout.isDrawerOpen(GravityCompat.START)
-                                ? mCloseDrawerContentDescRes
-                                : mOpenDrawerContentDescRes);
+                setActionBarUpIndicator(getSlider(), getContentDescRes());
             } else {
-                setActionBarUpIndicator(mHomeAsUpIndicator, 0);
+                setActionBarUpIndicator(getHomeAsUpIndicator(), 0);
             }
             mDrawerIndicatorEnabled = enable;
         }
     }
 
     /**
+     * Returns the drawer arrow of the toggle. If the toggle has been constructed with a
+     * Toolbar, the arrow is only updated while that Toolbar is on screen, so its position may
+     * lag behind the drawer until the Toolbar is drawn again.
+     *
      * @return DrawerArrowDrawable that is currently shown by the ActionBarDrawerToggle.
      */
     @NonNull
     public DrawerArrowDrawableCompat getDrawerArrowDrawable() {
-        return mSlider;
+        return getSlider();
+    }
+
+    public boolean isDrawerArrowDrawablePoolEnabled() {
+        return mDrawerArrowDrawablePoolEnabled;
+    }
+
+    /**
+     * Specifies whether the default drawer arrow should be obtained from the
+     * {@link DrawerArrowDrawablePool}, sharing its paint and geometry cache with the arrows
+     * of other toggles using the same style. The arrow is still constructed and styled as
+     * usual. Has to be called before the drawer arrow is first used.
+     *
+     * @param enabled true to use the shared pool, false to create a separate drawable
+     */
+    public void setDrawerArrowDrawablePoolEnabled(boolean enabled) {
+        mDrawerArrowDrawablePoolEnabled = enabled;
     }
 
     /**
@@ -454,43 +806,152 @@ public class ActionBarDrawerToggle implements DrawerLayout.DrawerListener {
      */
     public void setDrawerArrowDrawable(@NonNull DrawerArrowDrawableCompat drawable) {
         mSlider = drawable;
+        forgetAppliedIndicator();
         syncState(null);
     }
 
     public void toggleIndicator(final boolean backDirection) {
-        this.mRotateDirectionBack = backDirection;
-        this.mAutoResetRotateDirection = true;
-
-        float position = Math.round(this.mSlider.getPosition());
-        float start, end;
-        if (position == SLIDER_START_POSITION) {
-            start = SLIDER_START_POSITION;
-            end = SLIDER_END_POSITION;
+        mState.setRotateDirectionBack(backDirection);
+        mState.setAutoResetRotateDirection(true);
+
+        // continue from the exact current position, reversing a running animation
+        final float position = getIndicatorPosition();
+        final float end;
+        if (mAnimating) {
+            end = mAnimationEnd == SLIDER_END_POSITION ? SLIDER_START_POSITION : SLIDER_END_POSITION;
         } else {
-            start = SLIDER_END_POSITION;
-            end = SLIDER_START_POSITION;
+            end = Math.round(position) == SLIDER_START_POSITION
+                    ? SLIDER_END_POSITION : SLIDER_START_POSITION;
         }
 
-        animateDrawer(start, end);
+        // a full toggle takes the whole duration, shorter distances proportionally less
+        final long durationNanos = (long) (mInterpolatorDuration * NANOS_PER_MILLISECOND
+                * Math.abs(end - position));
+        startAnimation(position, end, durationNanos, 0.0F, false);
     }
 
+    /**
+     * Animates the indicator from start to end position. An animation which is already running
+     * is cancelled.
+     *
+     * @param start start position
+     * @param end   end position
+     */
     public void animateDrawer(final float start, final float end) {
+        startAnimation(start, end, mInterpolatorDuration * NANOS_PER_MILLISECOND, 0.0F, false);
+    }
 
-        final ValueAnimator anim = ValueAnimator.ofFloat(start, end);
-        anim.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
-            @Override
-            public void onAnimationUpdate(ValueAnimator valueAnimator) {
-                float slideOffset = (Float) valueAnimator.getAnimatedValue();
-                setPosition(slideOffset);
-                if (slideOffset == end) {
-                    anim.removeAllListeners();
-                }
-            }
-        });
-        anim.setInterpolator(mInterpolator);
+    private void startAnimation(float start, float end, long durationNanos,
+                                float elapsedFraction, boolean decelerate) {
+        final Context context = mDrawerLayout.getContext();
+        if (mAdaptivePowerModeEnabled) {
+            mPowerConstrained = IndicatorPowerPolicy.isPowerConstrained(context);
+        }
+        final float durationScale = IndicatorPowerPolicy.getAnimatorDurationScale(context);
+        if (durationScale == 0.0F) {
+            // animations are off, jump straight to the end state
+            cancelAnimation();
+            setPosition(end);
+            return;
+        }
+        durationNanos = (long) (durationNanos * durationScale);
+        mAnimationDurationScale = durationScale;
+
+        mAnimating = true;
+        mAnimationStart = start;
+        mAnimationEnd = end;
         // You can change this duration to more closely match that of the default animation.
-        anim.setDuration(mInterpolatorDuration);
-        anim.start();
+        mAnimationDurationNanos = durationNanos;
+        // a resumed animation keeps the curve it has been started with
+        mAnimationDecelerate = decelerate;
+        if (!decelerate && mCompletionMode == COMPLETION_MODE_VELOCITY
+                && elapsedFraction == 0.0F) {
+            applyVelocityCompletion(end - start);
+        }
+        // the start time is taken from the first frame
+        mAnimationStartNanos = -1;
+        mAnimationSeekFraction = elapsedFraction;
+        mAnimationElapsedFraction = elapsedFraction;
+        if (mFrameTracker != null) {
+            mFrameTracker.begin(IndicatorFrameMetricsListener.SOURCE_ANIMATION);
+        }
+        IndicatorFrameDriver.getInstance().register(mAnimationFrameClient);
+    }
+
+    private void cancelAnimation() {
+        if (mAnimating) {
+            mAnimating = false;
+            IndicatorFrameDriver.getInstance().unregister(mAnimationFrameClient);
+            if (mFrameTracker != null) {
+                mFrameTracker.end(IndicatorFrameMetricsListener.SOURCE_ANIMATION);
+            }
+        }
+    }
+
+    private void applyVelocityCompletion(float distance) {
+        if (mLastSlideNanos < 0
+                || IndicatorFrameDriver.getInstance().nanoTime() - mLastSlideNanos
+                > VELOCITY_TIMEOUT_NANOS
+                || Math.abs(mSlideVelocity) < MIN_COMPLETION_VELOCITY
+                || distance * mSlideVelocity <= 0.0F) {
+            return;
+        }
+        // 1 - (1 - t)^2 starts with twice the average speed, match it to the slide velocity
+        final long durationNanos = (long) (2.0F * Math.abs(distance) / Math.abs(mSlideVelocity)
+                * NANOS_PER_SECOND);
+        if (durationNanos < mAnimationDurationNanos) {
+            mAnimationDurationNanos = Math.max(durationNanos, MIN_COMPLETION_DURATION_NANOS);
+            mAnimationDecelerate = true;
+        }
+    }
+
+    private void trackSlideVelocity(float offset) {
+        final long now = IndicatorFrameDriver.getInstance().nanoTime();
+        if (mLastSlideNanos >= 0 && now - mLastSlideNanos <= VELOCITY_TIMEOUT_NANOS) {
+            final long deltaNanos = now - mLastSlideNanos;
+            if (deltaNanos > 0) {
+                final float velocity = (offset - mLastSlideOffset) * NANOS_PER_SECOND / deltaNanos;
+                mSlideVelocity = (mSlideVelocity + velocity) / 2;
+            }
+        } else {
+            mSlideVelocity = 0.0F;
+        }
+        mLastSlideOffset = offset;
+        mLastSlideNanos = now;
+    }
+
+    private boolean doAnimationFrame(long frameTimeNanos) {
+        if (!mAnimating) {
+            return false;
+        }
+        if (mAnimationStartNanos < 0) {
+            mAnimationStartNanos = frameTimeNanos
+                    - (long) (mAnimationSeekFraction * mAnimationDurationNanos);
+        }
+
+        final long elapsedNanos = frameTimeNanos - mAnimationStartNanos;
+        if (mAnimationDurationNanos <= 0 || elapsedNanos >= mAnimationDurationNanos) {
+            mAnimating = false;
+            mAnimationElapsedFraction = SLIDER_END_POSITION;
+            setPosition(mAnimationEnd);
+            if (mFrameTracker != null) {
+                mFrameTracker.end(IndicatorFrameMetricsListener.SOURCE_ANIMATION);
+            }
+            return false;
+        }
+
+        mAnimationElapsedFraction = (float) elapsedNanos / mAnimationDurationNanos;
+        final float fraction;
+        if (mAnimationDecelerate) {
+            final float remaining = SLIDER_END_POSITION - mAnimationElapsedFraction;
+            fraction = SLIDER_END_POSITION - remaining * remaining;
+        } else if (mAnimationInterpolator != null) {
+            fraction = mAnimationInterpolator.getInterpolation(mAnimationElapsedFraction);
+        } else {
+            fraction = mAnimationElapsedFraction;
+        }
+        setPosition(mAnimationStart + (mAnimationEnd - mAnimationStart) * fraction);
+        return true;
     }
 
     /**
@@ -522,7 +983,14 @@ public class ActionBarDrawerToggle implements DrawerLayout.DrawerListener {
      */
     @Override
     public void onDrawerSlide(View drawerView, float slideOffset) {
-        setPosition(mDrawerSlideAnimationEnabled ? slideOffset : SLIDER_START_POSITION);
+        if (mFrameTracker != null) {
+            mFrameTracker.begin(IndicatorFrameMetricsListener.SOURCE_DRAG);
+        }
+        setDrawerOffset(drawerView, slideOffset);
+        if (mCompletionMode == COMPLETION_MODE_VELOCITY) {
+            trackSlideVelocity(getDrawerOffset());
+        }
+        notifyIndicatorState();
     }
 
     /**
@@ -535,10 +1003,11 @@ public class ActionBarDrawerToggle implements DrawerLayout.DrawerListener {
      */
     @Override
     public void onDrawerOpened(View drawerView) {
-        setPosition(SLIDER_END_POSITION);
+        setDrawerOffset(drawerView, SLIDER_END_POSITION);
         if (mDrawerIndicatorEnabled) {
-            setActionBarDescription(mCloseDrawerContentDescRes);
+            postActionBarDescription();
         }
+        notifyIndicatorState();
     }
 
     /**
@@ -550,10 +1019,11 @@ public class ActionBarDrawerToggle implements DrawerLayout.DrawerListener {
      */
     @Override
     public void onDrawerClosed(View drawerView) {
-        setPosition(SLIDER_START_POSITION);
+        setDrawerOffset(drawerView, SLIDER_START_POSITION);
         if (mDrawerIndicatorEnabled) {
-            setActionBarDescription(mOpenDrawerContentDescRes);
+            postActionBarDescription();
         }
+        notifyIndicatorState();
     }
 
     /**
@@ -565,6 +1035,48 @@ public class ActionBarDrawerToggle implements DrawerLayout.DrawerListener {
      */
     @Override
     public void onDrawerStateChanged(int newState) {
+        if (mFrameTracker != null && newState == DrawerLayout.STATE_IDLE) {
+            mFrameTracker.end(IndicatorFrameMetricsListener.SOURCE_DRAG);
+        }
+        if (mAdaptivePowerModeEnabled && mDrawerState == DrawerLayout.STATE_IDLE
+                && newState != DrawerLayout.STATE_IDLE) {
+            mPowerConstrained = IndicatorPowerPolicy.isPowerConstrained(mDrawerLayout.getContext());
+        }
+        mDrawerState = newState;
+        notifyIndicatorState();
+    }
+
+    /**
+     * Binds another Toolbar to this toggle, e.g. the Toolbar of another ViewPager page sharing
+     * the same DrawerLayout. The Toolbar shows its own copy of the drawer arrow, which is only
+     * updated while the Toolbar is on screen; hidden or scrolled away Toolbars catch up once
+     * they are drawn again. Only available if the toggle has been constructed with a Toolbar.
+     * <p>
+     * The toggle keeps a reference to the Toolbar until {@link #removeToolbar(Toolbar)} is
+     * called, e.g. call it from {@code Fragment.onDestroyView()} for Toolbars of Fragments.
+     *
+     * @param toolbar Toolbar to bind
+     * @see #removeToolbar(Toolbar)
+     */
+    public void addToolbar(@NonNull Toolbar toolbar) {
+        if (!(mActivityImpl instanceof ToolbarCompatDelegate)) {
+            throw new IllegalStateException("ActionBarDrawerToggle has been created without a Toolbar");
+        }
+        if (((ToolbarCompatDelegate) mActivityImpl).addToolbar(toolbar)) {
+            toolbar.setNavigationOnClickListener(mToolbarNavigationOnClickListener);
+        }
+    }
+
+    /**
+     * Unbinds a Toolbar which has been bound by {@link #addToolbar(Toolbar)}.
+     *
+     * @param toolbar Toolbar to unbind
+     */
+    public void removeToolbar(@NonNull Toolbar toolbar) {
+        if (mActivityImpl instanceof ToolbarCompatDelegate
+                && ((ToolbarCompatDelegate) mActivityImpl).removeToolbar(toolbar)) {
+            toolbar.setNavigationOnClickListener(null);
+        }
     }
 
     /**
@@ -593,40 +1105,202 @@ public class ActionBarDrawerToggle implements DrawerLayout.DrawerListener {
         mToolbarNavigationClickListener = onClickListener;
     }
 
+    /**
+     * Returns how many indicator and content description updates have been passed to the
+     * {@link Delegate}.
+     *
+     * @see #getSkippedIndicatorUpdateCount()
+     */
+    public int getAppliedIndicatorUpdateCount() {
+        return mAppliedIndicatorUpdates;
+    }
+
+    /**
+     * Returns how many indicator and content description updates have been skipped because
+     * the {@link Delegate} already shows the same drawable and description.
+     * Only updates caused by drawer callbacks are skipped, {@link #syncState(Bundle)} always
+     * re-applies the indicator.
+     *
+     * @see #getAppliedIndicatorUpdateCount()
+     */
+    public int getSkippedIndicatorUpdateCount() {
+        return mSkippedIndicatorUpdates;
+    }
+
+    private void forgetAppliedIndicator() {
+        mAppliedUpIndicator = null;
+        mAppliedContentDescRes = NO_CONTENT_DESCRIPTION;
+    }
+
     void setActionBarUpIndicator(Drawable upDrawable, int contentDescRes) {
         if (!mWarnedForDisplayHomeAsUp && !mActivityImpl.isNavigationVisible()) {
             Log.w(TAG, MESSAGE_NAV_ICON_NOT_VISIBLE);
             mWarnedForDisplayHomeAsUp = true;
         }
-        mActivityImpl.setActionBarUpIndicator(upDrawable, contentDescRes);
+        if (upDrawable == mAppliedUpIndicator) {
+            setActionBarDescription(contentDescRes);
+            return;
+        }
+        mAppliedUpIndicator = upDrawable;
+        mAppliedContentDescRes = contentDescRes;
+        mAppliedIndicatorUpdates++;
+        if (mActivityImpl instanceof DescriptionDelegate) {
+            ((DescriptionDelegate) mActivityImpl).setActionBarUpIndicator(upDrawable,
+                    getContentDescription(contentDescRes));
+        } else {
+            mActivityImpl.setActionBarUpIndicator(upDrawable, contentDescRes);
+        }
     }
 
     void setActionBarDescription(int contentDescRes) {
-        mActivityImpl.setActionBarDescription(contentDescRes);
+        if (contentDescRes == mAppliedContentDescRes) {
+            mSkippedIndicatorUpdates++;
+            return;
+        }
+        mAppliedContentDescRes = contentDescRes;
+        mAppliedIndicatorUpdates++;
+        if (mActivityImpl instanceof DescriptionDelegate) {
+            ((DescriptionDelegate) mActivityImpl).setActionBarDescription(
+                    getContentDescription(contentDescRes));
+        } else {
+            mActivityImpl.setActionBarDescription(contentDescRes);
+        }
+    }
+
+    /**
+     * Applies the content description on the next frame, so opening and closing a drawer
+     * within one frame updates the Action Bar only once.
+     */
+    private void postActionBarDescription() {
+        if (!mContentDescPending) {
+            mContentDescPending = true;
+            IndicatorFrameDriver.getInstance().register(mContentDescFrameClient);
+        }
+    }
+
+    @SuppressWarnings("deprecation")
+    private CharSequence getContentDescription(@StringRes int contentDescRes) {
+        if (contentDescRes == 0) {
+            return null;
+        }
+        final Context context = mActivityImpl.getActionBarThemedContext();
+        if (contentDescRes != mOpenDrawerContentDescRes
+                && contentDescRes != mCloseDrawerContentDescRes) {
+            return context.getText(contentDescRes);
+        }
+        if (mContentDescLocale == null) {
+            mContentDescLocale = context.getResources().getConfiguration().locale;
+        }
+        if (contentDescRes == mOpenDrawerContentDescRes) {
+            if (mOpenDrawerContentDesc == null) {
+                mOpenDrawerContentDesc = context.getText(contentDescRes);
+            }
+            return mOpenDrawerContentDesc;
+        }
+        if (mCloseDrawerContentDesc == null) {
+            mCloseDrawerContentDesc = context.getText(contentDescRes);
+        }
+        return mCloseDrawerContentDesc;
     }
 
     Drawable getThemeUpIndicator() {
         return mActivityImpl.getThemeUpIndicator();
     }
 
-    private void setPosition(float slideOffset) {
-        float position = Math.min(SLIDER_END_POSITION, Math.max(SLIDER_START_POSITION, slideOffset));
-        int mirrored = DrawerImageState.TOGGLE_DRAWER_DEFAULT;
+    private DrawerArrowDrawableCompat getSlider() {
+        if (mSlider == null && mActivityImpl != null) {
+            final Context themedContext = mActivityImpl.getActionBarThemedContext();
+            mSlider = mDrawerArrowDrawablePoolEnabled
+                    ? DrawerArrowDrawablePool.obtain(themedContext)
+                    : new DrawerArrowDrawableCompat(themedContext);
+        }
+        return mSlider;
+    }
 
-        if (mRotateDirectionBack) {
-            mirrored = DrawerImageState.TOGGLE_DRAWER_MIRRORED;
-        } else {
-            if (position == SLIDER_START_POSITION) {
-                mirrored = DrawerImageState.TOGGLE_DRAWER_NORMAL;
-            } else if (position == SLIDER_END_POSITION) {
-                mirrored = DrawerImageState.TOGGLE_DRAWER_MIRRORED;
-            }
+    private Drawable getHomeAsUpIndicator() {
+        if (!mHomeAsUpIndicatorResolved) {
+            mHomeAsUpIndicator = getThemeUpIndicator();
+            mHomeAsUpIndicatorResolved = true;
         }
+        return mHomeAsUpIndicator;
+    }
 
-        this.mSlider.setPosition(position, mirrored);
-        if (mAutoResetRotateDirection && mRotateDirectionBack && position == SLIDER_END_POSITION) {
-            mRotateDirectionBack = !mRotateDirectionBack;
+    private void notifyIndicatorState() {
+        if (mIndicatorStateListener == null) {
+            return;
+        }
+        if (mIndicatorStateDispatched) {
+            mIndicatorStatePending = true;
+            return;
         }
+        mIndicatorStateDispatched = true;
+        IndicatorFrameDriver.getInstance().register(mIndicatorStateFrameClient);
+        dispatchIndicatorState();
+    }
+
+    private void dispatchIndicatorState() {
+        final float position = mState.getPosition();
+        final int imageState = mState.getImageState();
+        if (mIndicatorStateListener == null || Float.isNaN(position)
+                || (position == mDispatchedPosition
+                && imageState == mDispatchedImageState
+                && mDrawerState == mDispatchedDrawerState)) {
+            return;
+        }
+        mDispatchedPosition = position;
+        mDispatchedImageState = imageState;
+        mDispatchedDrawerState = mDrawerState;
+        mIndicatorStateListener.onIndicatorStateChanged(position, imageState, mDrawerState);
+    }
+
+    private void setDrawerOffset(View drawerView, float slideOffset) {
+        mDrawerOffsets[getDrawerSlot(drawerView)] = slideOffset;
+        setPosition(mDrawerSlideAnimationEnabled ? getDrawerOffset() : SLIDER_START_POSITION);
+    }
+
+    private float getDrawerOffset() {
+        // both drawers may move in the same frame, only the most opened one is shown
+        return Math.max(mDrawerOffsets[DRAWER_SLOT_START], mDrawerOffsets[DRAWER_SLOT_END]);
+    }
+
+    private int getDrawerSlot(View drawerView) {
+        final ViewGroup.LayoutParams params = drawerView.getLayoutParams();
+        if (!(params instanceof DrawerLayout.LayoutParams)) {
+            return DRAWER_SLOT_START;
+        }
+        final int layoutDirection = ViewCompat.getLayoutDirection(mDrawerLayout);
+        final int gravity = GravityCompat.getAbsoluteGravity(
+                ((DrawerLayout.LayoutParams) params).gravity, layoutDirection)
+                & Gravity.HORIZONTAL_GRAVITY_MASK;
+        final int startGravity = layoutDirection == ViewCompat.LAYOUT_DIRECTION_RTL
+                ? Gravity.RIGHT : Gravity.LEFT;
+        return gravity == startGravity ? DRAWER_SLOT_START : DRAWER_SLOT_END;
+    }
+
+    private void setPosition(float slideOffset) {
+        if (mPowerConstrained) {
+            // fewer distinct positions mean fewer invalidations, resting states are kept
+            slideOffset = Math.round(slideOffset * POWER_SAVE_POSITION_STEPS)
+                    / (float) POWER_SAVE_POSITION_STEPS;
+        }
+        if (mState.update(slideOffset)) {
+            if (mActivityImpl instanceof ToolbarCompatDelegate) {
+                // toolbars apply the position to their arrows only while they are shown
+                ((ToolbarCompatDelegate) mActivityImpl).setPosition(
+                        mState.getPosition(), mState.getImageState());
+            } else {
+                getSlider().setPosition(mState.getPosition(), mState.getImageState());
+            }
+        }
+    }
+
+    /**
+     * Returns the exact indicator position, which the slider may not show yet while its
+     * toolbar is hidden.
+     */
+    private float getIndicatorPosition() {
+        final float position = mState.getPosition();
+        return Float.isNaN(position) ? getSlider().getPosition() : position;
     }
 
     /**
@@ -671,14 +1345,17 @@ public class ActionBarDrawerToggle implements DrawerLayout.DrawerListener {
         public void setActionBarUpIndicator(Drawable themeImage, int contentDescRes) {
             final ActionBar actionBar = mActivity.getActionBar();
             if (actionBar != null) {
-                actionBar.setDisplayShowHomeEnabled(true);
                 mSetIndicatorInfo = ActionBarDrawerToggleHoneycomb.setActionBarUpIndicator(
                         mSetIndicatorInfo,
                         mActivity,
                         themeImage,
                         contentDescRes);
 
-                actionBar.setDisplayShowHomeEnabled(false);
+                // The indicator is applied without toggling the home view, so the bar is only
+                // relayouted if the home view is still shown and has to be hidden once.
+                if ((actionBar.getDisplayOptions() & ActionBar.DISPLAY_SHOW_HOME) != 0) {
+                    actionBar.setDisplayOptions(0, ActionBar.DISPLAY_SHOW_HOME);
+                }
             }
         }
 
@@ -694,7 +1371,7 @@ public class ActionBarDrawerToggle implements DrawerLayout.DrawerListener {
      */
     @RequiresApi(Build.VERSION_CODES.JELLY_BEAN_MR2)
     @TargetApi(Build.VERSION_CODES.JELLY_BEAN_MR2)
-    private static class JellybeanMr2Delegate implements Delegate {
+    private static class JellybeanMr2Delegate implements Delegate, DescriptionDelegate {
 
         final Activity mActivity;
 
@@ -739,6 +1416,15 @@ public class ActionBarDrawerToggle implements DrawerLayout.DrawerListener {
             }
         }
 
+        @Override
+        public void setActionBarUpIndicator(Drawable drawable, CharSequence contentDescription) {
+            final ActionBar actionBar = mActivity.getActionBar();
+            if (actionBar != null) {
+                actionBar.setHomeAsUpIndicator(drawable);
+                actionBar.setHomeActionContentDescription(contentDescription);
+            }
+        }
+
         @Override
         public void setActionBarDescription(int contentDescRes) {
             final ActionBar actionBar = mActivity.getActionBar();
@@ -746,35 +1432,73 @@ public class ActionBarDrawerToggle implements DrawerLayout.DrawerListener {
                 actionBar.setHomeActionContentDescription(contentDescRes);
             }
         }
+
+        @Override
+        public void setActionBarDescription(CharSequence contentDescription) {
+            final ActionBar actionBar = mActivity.getActionBar();
+            if (actionBar != null) {
+                actionBar.setHomeActionContentDescription(contentDescription);
+            }
+        }
     }
 
     /**
      * Used when DrawerToggle is initialized with a Toolbar
      */
-    static class ToolbarCompatDelegate implements Delegate {
+    static class ToolbarCompatDelegate implements Delegate, DescriptionDelegate {
 
         final Toolbar mToolbar;
         final Drawable mDefaultUpIndicator;
         final CharSequence mDefaultContentDescription;
 
+        // only used from the main thread to test the visibility of the toolbars
+        private static final Rect sVisibleRect = new Rect();
+
+        // mToolbar first, followed by the toolbars bound through addToolbar()
+        private final ArrayList<ToolbarBinding> mBindings = new ArrayList<>();
+        private Drawable mUpIndicator;
+        private CharSequence mContentDescription;
+        private float mPosition = Float.NaN;
+        @DrawerImageState
+        private int mImageState = DrawerImageState.TOGGLE_DRAWER_DEFAULT;
+
         ToolbarCompatDelegate(Toolbar toolbar) {
             mToolbar = toolbar;
             mDefaultUpIndicator = toolbar.getNavigationIcon();
             mDefaultContentDescription = toolbar.getNavigationContentDescription();
+            final ToolbarBinding binding = new ToolbarBinding(toolbar, true);
+            mBindings.add(binding);
+            toolbar.addOnAttachStateChangeListener(binding);
         }
 
         @Override
         public void setActionBarUpIndicator(Drawable upDrawable, @StringRes int contentDescRes) {
-            mToolbar.setNavigationIcon(upDrawable);
-            setActionBarDescription(contentDescRes);
+            setActionBarUpIndicator(upDrawable, contentDescRes == 0
+                    ? null
+                    : mToolbar.getContext().getText(contentDescRes));
+        }
+
+        @Override
+        public void setActionBarUpIndicator(Drawable upDrawable, CharSequence contentDescription) {
+            mUpIndicator = upDrawable;
+            for (int i = 0, size = mBindings.size(); i < size; i++) {
+                mBindings.get(i).setUpIndicator(upDrawable);
+            }
+            setActionBarDescription(contentDescription);
         }
 
         @Override
         public void setActionBarDescription(@StringRes int contentDescRes) {
-            if (contentDescRes == 0) {
-                mToolbar.setNavigationContentDescription(mDefaultContentDescription);
-            } else {
-                mToolbar.setNavigationContentDescription(contentDescRes);
+            setActionBarDescription(contentDescRes == 0
+                    ? null
+                    : mToolbar.getContext().getText(contentDescRes));
+        }
+
+        @Override
+        public void setActionBarDescription(CharSequence contentDescription) {
+            mContentDescription = contentDescription;
+            for (int i = 0, size = mBindings.size(); i < size; i++) {
+                mBindings.get(i).setDescription(contentDescription);
             }
         }
 
@@ -792,6 +1516,173 @@ public class ActionBarDrawerToggle implements DrawerLayout.DrawerListener {
         public boolean isNavigationVisible() {
             return true;
         }
+
+        boolean addToolbar(Toolbar toolbar) {
+            if (indexOf(toolbar) >= 0) {
+                return false;
+            }
+            final ToolbarBinding binding = new ToolbarBinding(toolbar, false);
+            mBindings.add(binding);
+            toolbar.addOnAttachStateChangeListener(binding);
+            if (mUpIndicator != null) {
+                binding.setUpIndicator(mUpIndicator);
+                binding.setDescription(mContentDescription);
+            }
+            return true;
+        }
+
+        boolean removeToolbar(Toolbar toolbar) {
+            final int index = indexOf(toolbar);
+            if (index <= 0) {
+                // mToolbar stays bound
+                return false;
+            }
+            final ToolbarBinding binding = mBindings.remove(index);
+            toolbar.removeOnAttachStateChangeListener(binding);
+            binding.removePreDrawListener();
+            return true;
+        }
+
+        /**
+         * Forwards the indicator position to the arrows of all toolbars which are shown, the
+         * others catch up once they are drawn again.
+         */
+        void setPosition(float position, @DrawerImageState int imageState) {
+            mPosition = position;
+            mImageState = imageState;
+            for (int i = 0, size = mBindings.size(); i < size; i++) {
+                mBindings.get(i).updatePosition();
+            }
+        }
+
+        private int indexOf(Toolbar toolbar) {
+            for (int i = 0, size = mBindings.size(); i < size; i++) {
+                if (mBindings.get(i).mBoundToolbar == toolbar) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Toolbar showing the indicator. mToolbar shows the drawer arrow of the toggle itself,
+         * additional toolbars show their own copy of it. Arrows are only updated while their
+         * toolbar is visible.
+         */
+        private final class ToolbarBinding implements View.OnAttachStateChangeListener,
+                ViewTreeObserver.OnPreDrawListener {
+
+            final Toolbar mBoundToolbar;
+            final CharSequence mBoundDefaultContentDescription;
+            // shows the indicator drawables themselves instead of copies
+            private final boolean mPrimary;
+            private DrawerArrowDrawableCompat mArrowSource;
+            private DrawerArrowDrawableCompat mArrow;
+            private boolean mShowsArrow;
+            private boolean mStale;
+            private ViewTreeObserver mPreDrawObserver;
+
+            ToolbarBinding(Toolbar toolbar, boolean primary) {
+                mBoundToolbar = toolbar;
+                mBoundDefaultContentDescription = toolbar.getNavigationContentDescription();
+                mPrimary = primary;
+            }
+
+            void setUpIndicator(Drawable upDrawable) {
+                Drawable icon = upDrawable;
+                mShowsArrow = upDrawable instanceof DrawerArrowDrawableCompat;
+                if (mShowsArrow) {
+                    if (mArrowSource != upDrawable) {
+                        mArrowSource = (DrawerArrowDrawableCompat) upDrawable;
+                        final Drawable.ConstantState state = mPrimary
+                                ? null : mArrowSource.getConstantState();
+                        mArrow = state != null
+                                ? (DrawerArrowDrawableCompat) state.newDrawable()
+                                : mArrowSource;
+                    }
+                    icon = mArrow;
+                    mStale = true;
+                    updatePosition();
+                } else if (!mPrimary && upDrawable != null
+                        && upDrawable.getConstantState() != null) {
+                    icon = upDrawable.getConstantState().newDrawable(mBoundToolbar.getResources());
+                }
+                mBoundToolbar.setNavigationIcon(icon);
+            }
+
+            void setDescription(CharSequence contentDescription) {
+                mBoundToolbar.setNavigationContentDescription(contentDescription == null
+                        ? mBoundDefaultContentDescription
+                        : contentDescription);
+            }
+
+            void updatePosition() {
+                if (!mShowsArrow || (!mPrimary && mArrow == mArrowSource)) {
+                    // the shared arrow is positioned through mToolbar
+                    return;
+                }
+                if (ViewCompat.isAttachedToWindow(mBoundToolbar) && isOnScreen()) {
+                    catchUp();
+                } else {
+                    mStale = true;
+                    addPreDrawListener();
+                }
+            }
+
+            private void catchUp() {
+                mStale = false;
+                if (!Float.isNaN(mPosition)) {
+                    mArrow.setPosition(mPosition, mImageState);
+                }
+            }
+
+            private void addPreDrawListener() {
+                if (mPreDrawObserver == null && ViewCompat.isAttachedToWindow(mBoundToolbar)) {
+                    mPreDrawObserver = mBoundToolbar.getViewTreeObserver();
+                    mPreDrawObserver.addOnPreDrawListener(this);
+                }
+            }
+
+            void removePreDrawListener() {
+                if (mPreDrawObserver != null) {
+                    if (mPreDrawObserver.isAlive()) {
+                        mPreDrawObserver.removeOnPreDrawListener(this);
+                    }
+                    mPreDrawObserver = null;
+                }
+            }
+
+            /**
+             * Toolbars of off-screen ViewPager pages are attached and visible, but clipped away
+             * by their parents.
+             */
+            private boolean isOnScreen() {
+                return mBoundToolbar.isShown() && mBoundToolbar.getGlobalVisibleRect(sVisibleRect);
+            }
+
+            @Override
+            public boolean onPreDraw() {
+                if (isOnScreen()) {
+                    removePreDrawListener();
+                    if (mStale) {
+                        catchUp();
+                    }
+                }
+                return true;
+            }
+
+            @Override
+            public void onViewAttachedToWindow(View v) {
+                if (mStale) {
+                    addPreDrawListener();
+                }
+            }
+
+            @Override
+            public void onViewDetachedFromWindow(View v) {
+                removePreDrawListener();
+            }
+        }
     }
 
     /**
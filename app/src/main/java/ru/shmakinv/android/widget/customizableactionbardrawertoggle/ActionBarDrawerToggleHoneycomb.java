@@ -28,7 +28,9 @@ import android.view.View;
 import android.view.ViewGroup;
 import android.widget.ImageView;
 
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Method;
+import java.util.WeakHashMap;
 
 /**
  * This class encapsulates some awful hacks.
@@ -46,9 +48,20 @@ class ActionBarDrawerToggleHoneycomb {
     private static final String MESSAGE_HOME_AS_UP_JB_MR2 = "Couldn't set home-as-up indicator via JB-MR2 API";
 
     private static final String METHOD_NAME_HOME_AS_UP = "setHomeAsUpIndicator";
+    private static final String METHOD_NAME_CONTENT_DESCR = "setHomeActionContentDescription";
+
+    // Reflection results are resolved once per process. Only accessed from the main thread.
+    private static boolean sMethodsResolved;
+    private static Method sSetHomeAsUpIndicator;
+    private static Method sSetHomeActionContentDescription;
+
+    // Up indicator views keyed by the window decor they were found in. Misses are not cached,
+    // the Action Bar may not have been inflated yet
+    private static final WeakHashMap<View, WeakReference<ImageView>> sUpIndicatorViews =
+            new WeakHashMap<>();
 
     private static final int[] THEME_ATTRS = new int[] {
-            R.attr.homeAsUpIndicator
+            android.R.attr.homeAsUpIndicator
     };
 
     @SuppressLint("LongLogTag")
@@ -108,37 +121,67 @@ class ActionBarDrawerToggleHoneycomb {
         public ImageView upIndicatorView;
 
         SetIndicatorInfo(Activity activity) {
-            try {
-                this.setHomeAsUpIndicator = ActionBar.class.getDeclaredMethod(
-                        METHOD_NAME_HOME_AS_UP, Drawable.class);
+            resolveMethods();
+            if (sSetHomeAsUpIndicator != null) {
+                this.setHomeAsUpIndicator = sSetHomeAsUpIndicator;
+                this.setHomeActionContentDescription = sSetHomeActionContentDescription;
 
                 // If we got the method we won't need the stuff below.
                 return;
+            }
+
+            final View decor = activity.getWindow().getDecorView();
+            final WeakReference<ImageView> upIndicatorRef = sUpIndicatorViews.get(decor);
+            ImageView up = upIndicatorRef != null ? upIndicatorRef.get() : null;
+            if (up == null) {
+                up = findUpIndicatorView(activity);
+                if (up != null) {
+                    sUpIndicatorViews.put(decor, new WeakReference<>(up));
+                }
+            }
+            upIndicatorView = up;
+        }
+
+        private static void resolveMethods() {
+            if (sMethodsResolved) {
+                return;
+            }
+            sMethodsResolved = true;
+            try {
+                sSetHomeAsUpIndicator = ActionBar.class.getDeclaredMethod(
+                        METHOD_NAME_HOME_AS_UP, Drawable.class);
+                sSetHomeActionContentDescription = ActionBar.class.getDeclaredMethod(
+                        METHOD_NAME_CONTENT_DESCR, Integer.TYPE);
             } catch (NoSuchMethodException e) {
-                // Oh well. We'll use the other mechanism below instead.
+                // Oh well. We'll use the other mechanism instead.
+                sSetHomeAsUpIndicator = null;
+                sSetHomeActionContentDescription = null;
             }
+        }
 
-            final View home = activity.findViewById(R.id.home);
+        private static ImageView findUpIndicatorView(Activity activity) {
+            final View home = activity.findViewById(android.R.id.home);
             if (home == null) {
                 // Action bar doesn't have a known configuration, an OEM messed with things.
-                return;
+                return null;
             }
 
             final ViewGroup parent = (ViewGroup) home.getParent();
             final int childCount = parent.getChildCount();
             if (childCount != 2) {
                 // No idea which one will be the right one, an OEM messed with things.
-                return;
+                return null;
             }
 
             final View first = parent.getChildAt(0);
             final View second = parent.getChildAt(1);
-            final View up = first.getId() == R.id.home ? second : first;
+            final View up = first.getId() == android.R.id.home ? second : first;
 
             if (up instanceof ImageView) {
                 // Jackpot! (Probably...)
-                upIndicatorView = (ImageView) up;
+                return (ImageView) up;
             }
+            return null;
         }
     }
 }
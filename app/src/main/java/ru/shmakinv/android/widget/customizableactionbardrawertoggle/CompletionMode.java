@@ -0,0 +1,20 @@
+package ru.shmakinv.android.widget.customizableactionbardrawertoggle;
+
+import android.support.annotation.IntDef;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+
+import static ru.shmakinv.android.widget.customizableactionbardrawertoggle.ActionBarDrawerToggle.COMPLETION_MODE_FIXED;
+import static ru.shmakinv.android.widget.customizableactionbardrawertoggle.ActionBarDrawerToggle.COMPLETION_MODE_VELOCITY;
+
+/**
+ * CompletionMode
+ *
+ * @author Vyacheslav Shmakin
+ * @version 18.10.2026
+ */
+@IntDef({COMPLETION_MODE_FIXED, COMPLETION_MODE_VELOCITY})
+@Retention(RetentionPolicy.SOURCE)
+public @interface CompletionMode {
+}
@@ -1,8 +1,21 @@
 package ru.shmakinv.android.widget.customizableactionbardrawertoggle;
 
 import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.ColorFilter;
+import android.graphics.Matrix;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.Rect;
+import android.graphics.drawable.Drawable;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.v4.graphics.drawable.DrawableCompat;
+import android.support.v4.view.ViewCompat;
 import android.support.v7.graphics.drawable.DrawerArrowDrawable;
 
+import java.util.Arrays;
+
 /**
  * DrawerArrowDrawableCompat
  *
@@ -11,8 +24,70 @@ import android.support.v7.graphics.drawable.DrawerArrowDrawable;
  */
 public class DrawerArrowDrawableCompat extends DrawerArrowDrawable {
 
+    /**
+     * Position epsilon which is derived from the current bar length, so that every applied
+     * position change moves the arrow geometry by at least one device pixel.
+     */
+    public static final float POSITION_EPSILON_AUTO = -1.0F;
+
+    /**
+     * Number of progress steps the arrow geometry is cached for. Finer than the steps let
+     * through by the default position epsilon for any practical bar length.
+     */
+    public static final int PROGRESS_BUCKETS = 512;
+
+    private static final float HALF_PI = (float) (Math.PI / 2);
+    // The angle in radians that the arrow head is inclined at.
+    private static final float ARROW_HEAD_ANGLE = (float) Math.toRadians(45);
+
+    // geometry values cached per progress bucket
+    private static final int GEOMETRY_SHAFT_LENGTH = 0;
+    private static final int GEOMETRY_SHAFT_CUT = 1;
+    private static final int GEOMETRY_ARROW_WIDTH = 2;
+    private static final int GEOMETRY_ARROW_HEIGHT = 3;
+    private static final int GEOMETRY_BAR_OFFSET = 4;
+    private static final int GEOMETRY_SIZE = 5;
+
+    private boolean mMirrored = false;
+    private float mPositionEpsilon = POSITION_EPSILON_AUTO;
+
+    private final Context mSharedContext;
+    // paint and resolved attributes shared with other drawables, null once mutated
+    private ArrowState mSharedState;
+    private boolean mMutated;
+
+    private final Path mArrowPath = new Path();
+    private final Matrix mArrowMatrix = new Matrix();
+    // own geometry, only used while no state is shared
+    private ArrowGeometry mGeometry;
+    // state mArrowPath has been built for
+    private ArrowGeometry mPathGeometry;
+    private int mPathGeneration;
+    private int mPathBucket = -1;
+    private boolean mPathMirrored;
+    private boolean mPathFlipped;
+    private boolean mPathSpin;
+    private int mPathCenterX;
+    private int mPathHeight;
+
     public DrawerArrowDrawableCompat(Context themedContext) {
         super(themedContext);
+        final Context applicationContext = themedContext.getApplicationContext();
+        mSharedContext = applicationContext != null ? applicationContext : themedContext;
+    }
+
+    DrawerArrowDrawableCompat(ArrowState state) {
+        super(state.mContext);
+        mSharedContext = state.mContext;
+        attachState(state);
+    }
+
+    /**
+     * Starts sharing the paint, attributes and geometry of the given state.
+     */
+    void attachState(ArrowState state) {
+        state.applyTo(this);
+        mSharedState = state;
     }
 
     public float getPosition() {
@@ -20,14 +95,430 @@ public class DrawerArrowDrawableCompat extends DrawerArrowDrawable {
     }
 
     public void setPosition(float position, @DrawerImageState int imageState) {
+        boolean mirrored = mMirrored;
         if (imageState == DrawerImageState.TOGGLE_DRAWER_MIRRORED) {
-            this.setVerticalMirror(true);
+            mirrored = true;
         } else if (imageState == DrawerImageState.TOGGLE_DRAWER_NORMAL) {
-            this.setVerticalMirror(false);
+            mirrored = false;
+        }
+
+        if (mirrored == mMirrored && !isVisiblePositionChange(position)) {
+            return;
         }
 
+        this.setVerticalMirror(mirrored);
         super.setProgress(position);
     }
-}
 
+    @Override
+    public void setVerticalMirror(boolean verticalMirror) {
+        mMirrored = verticalMirror;
+        super.setVerticalMirror(verticalMirror);
+    }
+
+    /**
+     * Returns the minimal position change which is applied by
+     * {@link #setPosition(float, int)}, or {@link #POSITION_EPSILON_AUTO}.
+     */
+    public float getPositionEpsilon() {
+        return mPositionEpsilon;
+    }
+
+    /**
+     * Sets the minimal position change which is applied by {@link #setPosition(float, int)}.
+     * Smaller changes are skipped unless the mirror state changes or the position reaches
+     * one of its bounds.
+     *
+     * @param positionEpsilon epsilon to use, 0 to apply every change or
+     *                        {@link #POSITION_EPSILON_AUTO} to apply only changes which move
+     *                        the arrow geometry by at least one device pixel
+     */
+    public void setPositionEpsilon(float positionEpsilon) {
+        this.mPositionEpsilon = positionEpsilon;
+    }
+
+    /**
+     * Same drawing as {@link DrawerArrowDrawable#draw(Canvas)}, but the arrow geometry is
+     * computed once per progress bucket and the path is rebuilt only when the bucket, mirror
+     * state, direction, spin or bounds change.
+     */
+    @Override
+    public void draw(Canvas canvas) {
+        final Rect bounds = getBounds();
+
+        final boolean flipToPointRight;
+        switch (getDirection()) {
+            case ARROW_DIRECTION_LEFT:
+                flipToPointRight = false;
+                break;
+            case ARROW_DIRECTION_RIGHT:
+                flipToPointRight = true;
+                break;
+            case ARROW_DIRECTION_END:
+                flipToPointRight = DrawableCompat.getLayoutDirection(this)
+                        == ViewCompat.LAYOUT_DIRECTION_LTR;
+                break;
+            case ARROW_DIRECTION_START:
+            default:
+                flipToPointRight = DrawableCompat.getLayoutDirection(this)
+                        == ViewCompat.LAYOUT_DIRECTION_RTL;
+                break;
+        }
+
+        final Paint paint = mSharedState != null ? mSharedState.mPaint : getPaint();
+        final ArrowGeometry geometry = getGeometry();
+        geometry.validate(getBarLength(), getArrowHeadLength(), getArrowShaftLength(),
+                paint.getStrokeWidth(), getGapSize());
+        final int bucket = Math.round(getProgress() * PROGRESS_BUCKETS);
+        if (geometry != mPathGeometry
+                || geometry.mGeneration != mPathGeneration
+                || bucket != mPathBucket
+                || mMirrored != mPathMirrored
+                || flipToPointRight != mPathFlipped
+                || isSpinEnabled() != mPathSpin
+                || bounds.centerX() != mPathCenterX
+                || bounds.height() != mPathHeight) {
+            buildArrowPath(geometry, bucket, flipToPointRight, bounds);
+        }
+        canvas.drawPath(mArrowPath, paint);
+    }
+
+    @Override
+    public void setColor(int color) {
+        super.setColor(color);
+        if (mSharedState != null) {
+            mSharedState.mPaint.setColor(color);
+        }
+    }
+
+    @Override
+    public void setBarThickness(float width) {
+        super.setBarThickness(width);
+        if (mSharedState != null) {
+            mSharedState.mPaint.setStrokeWidth(width);
+        }
+    }
+
+    @Override
+    public void setAlpha(int alpha) {
+        super.setAlpha(alpha);
+        if (mSharedState != null) {
+            mSharedState.mPaint.setAlpha(alpha);
+        }
+    }
+
+    @Override
+    public void setColorFilter(ColorFilter colorFilter) {
+        super.setColorFilter(colorFilter);
+        if (mSharedState != null) {
+            mSharedState.mPaint.setColorFilter(colorFilter);
+        }
+    }
+
+    @Override
+    public void setBarLength(float length) {
+        if (mSharedState != null && length != mSharedState.mBarLength) {
+            detachSharedState();
+        }
+        super.setBarLength(length);
+    }
+
+    @Override
+    public void setGapSize(float gap) {
+        if (mSharedState != null && gap != mSharedState.mGapSize) {
+            detachSharedState();
+        }
+        super.setGapSize(gap);
+    }
+
+    @Override
+    public void setArrowHeadLength(float length) {
+        if (mSharedState != null && length != mSharedState.mArrowHeadLength) {
+            detachSharedState();
+        }
+        super.setArrowHeadLength(length);
+    }
+
+    @Override
+    public void setArrowShaftLength(float length) {
+        if (mSharedState != null && length != mSharedState.mArrowShaftLength) {
+            detachSharedState();
+        }
+        super.setArrowShaftLength(length);
+    }
+
+    @Override
+    public int getIntrinsicWidth() {
+        return mSharedState != null ? mSharedState.mSize : super.getIntrinsicWidth();
+    }
+
+    @Override
+    public int getIntrinsicHeight() {
+        return mSharedState != null ? mSharedState.mSize : super.getIntrinsicHeight();
+    }
 
+    /**
+     * Returns a state sharing the paint and the resolved attributes of this drawable. Drawables
+     * created from it share them with this one until {@link #mutate()} is called.
+     */
+    @Nullable
+    @Override
+    public ConstantState getConstantState() {
+        if (mSharedState == null) {
+            final ArrowState state = new ArrowState(this);
+            if (mMutated) {
+                return state;
+            }
+            // the geometry computed so far is shared from now on
+            state.mGeometry = mGeometry;
+            mGeometry = null;
+            mSharedState = state;
+        }
+        return mSharedState;
+    }
+
+    @NonNull
+    @Override
+    public Drawable mutate() {
+        if (!mMutated) {
+            detachSharedState();
+            mMutated = true;
+        }
+        return this;
+    }
+
+    /**
+     * Stops sharing the state, e.g. because the bar dimensions of this drawable diverge from
+     * the shared ones.
+     */
+    private void detachSharedState() {
+        if (mSharedState != null) {
+            // changes made through other drawables only reached the shared paint
+            getPaint().set(mSharedState.mPaint);
+            mSharedState = null;
+        }
+    }
+
+    /**
+     * Paint and attributes of a {@link DrawerArrowDrawableCompat} which can be shared between
+     * several drawables. Each drawable keeps its own progress and mirror state.
+     */
+    static final class ArrowState extends ConstantState {
+
+        final Context mContext;
+        final Paint mPaint;
+        final int mSize;
+        final boolean mSpin;
+        final float mGapSize;
+        final float mBarLength;
+        final float mArrowHeadLength;
+        final float mArrowShaftLength;
+        final int mDirection;
+        // geometry shared by all drawables of this state, created on first draw
+        ArrowGeometry mGeometry;
+
+        ArrowState(DrawerArrowDrawableCompat drawable) {
+            // application context, so shared states don't leak activities
+            mContext = drawable.mSharedContext;
+            mPaint = new Paint(drawable.getPaint());
+            mSize = drawable.getIntrinsicWidth();
+            mSpin = drawable.isSpinEnabled();
+            mGapSize = drawable.getGapSize();
+            mBarLength = drawable.getBarLength();
+            mArrowHeadLength = drawable.getArrowHeadLength();
+            mArrowShaftLength = drawable.getArrowShaftLength();
+            mDirection = drawable.getDirection();
+        }
+
+        @SuppressWarnings("WrongConstant")
+        void applyTo(DrawerArrowDrawableCompat drawable) {
+            drawable.setColor(mPaint.getColor());
+            drawable.setBarThickness(mPaint.getStrokeWidth());
+            drawable.setAlpha(mPaint.getAlpha());
+            drawable.setColorFilter(mPaint.getColorFilter());
+            drawable.setSpinEnabled(mSpin);
+            drawable.setGapSize(mGapSize);
+            drawable.setBarLength(mBarLength);
+            drawable.setArrowHeadLength(mArrowHeadLength);
+            drawable.setArrowShaftLength(mArrowShaftLength);
+            drawable.setDirection(mDirection);
+        }
+
+        @NonNull
+        @Override
+        public Drawable newDrawable() {
+            return new DrawerArrowDrawableCompat(this);
+        }
+
+        @Override
+        public int getChangingConfigurations() {
+            return 0;
+        }
+    }
+
+    private ArrowGeometry getGeometry() {
+        if (mSharedState != null) {
+            if (mSharedState.mGeometry == null) {
+                mSharedState.mGeometry = new ArrowGeometry();
+            }
+            return mSharedState.mGeometry;
+        }
+        if (mGeometry == null) {
+            mGeometry = new ArrowGeometry();
+        }
+        return mGeometry;
+    }
+
+    /**
+     * Arrow geometry cached per progress bucket for one set of bar dimensions. Buckets are
+     * computed on first use.
+     */
+    static final class ArrowGeometry {
+
+        private final float[] mValues = new float[(PROGRESS_BUCKETS + 1) * GEOMETRY_SIZE];
+        // dimensions mValues has been computed for
+        private boolean mValid;
+        private float mBarLength;
+        private float mArrowHeadLength;
+        private float mArrowShaftLength;
+        private float mBarThickness;
+        private float mGapSize;
+        // changes with the dimensions, so paths built from older values are rebuilt
+        int mGeneration;
+
+        void validate(float barLength, float arrowHeadLength, float arrowShaftLength,
+                      float barThickness, float gapSize) {
+            if (mValid
+                    && barLength == mBarLength
+                    && arrowHeadLength == mArrowHeadLength
+                    && arrowShaftLength == mArrowShaftLength
+                    && barThickness == mBarThickness
+                    && gapSize == mGapSize) {
+                return;
+            }
+
+            Arrays.fill(mValues, Float.NaN);
+            mValid = true;
+            mBarLength = barLength;
+            mArrowHeadLength = arrowHeadLength;
+            mArrowShaftLength = arrowShaftLength;
+            mBarThickness = barThickness;
+            mGapSize = gapSize;
+            mGeneration++;
+        }
+
+        int compute(int bucket) {
+            final int offset = bucket * GEOMETRY_SIZE;
+            if (!Float.isNaN(mValues[offset])) {
+                return offset;
+            }
+
+            final float progress = (float) bucket / PROGRESS_BUCKETS;
+            final float maxCutForBarSize =
+                    (float) (mBarThickness / 2 * Math.cos(ARROW_HEAD_ANGLE));
+
+            // Interpolated widths of arrow bars
+            float arrowHeadBarLength = (float) Math.sqrt(
+                    mArrowHeadLength * mArrowHeadLength * 2);
+            arrowHeadBarLength = lerp(mBarLength, arrowHeadBarLength, progress);
+            // The rotation of the top and bottom bars (that make the arrow head)
+            final float rotation = lerp(0, ARROW_HEAD_ANGLE, progress);
+
+            mValues[offset + GEOMETRY_SHAFT_LENGTH] =
+                    lerp(mBarLength, mArrowShaftLength, progress);
+            // Interpolated size of middle bar
+            mValues[offset + GEOMETRY_SHAFT_CUT] = Math.round(lerp(0, maxCutForBarSize, progress));
+            mValues[offset + GEOMETRY_ARROW_WIDTH] =
+                    Math.round(arrowHeadBarLength * Math.cos(rotation));
+            mValues[offset + GEOMETRY_ARROW_HEIGHT] =
+                    Math.round(arrowHeadBarLength * Math.sin(rotation));
+            mValues[offset + GEOMETRY_BAR_OFFSET] = lerp(
+                    mGapSize + mBarThickness, -maxCutForBarSize, progress);
+            return offset;
+        }
+    }
+
+    private void buildArrowPath(ArrowGeometry geometry, int bucket, boolean flipToPointRight,
+                                Rect bounds) {
+        final int offset = geometry.compute(bucket);
+        final float[] values = geometry.mValues;
+        final float arrowShaftLength = values[offset + GEOMETRY_SHAFT_LENGTH];
+        final float arrowShaftCut = values[offset + GEOMETRY_SHAFT_CUT];
+        final float arrowWidth = values[offset + GEOMETRY_ARROW_WIDTH];
+        final float arrowHeight = values[offset + GEOMETRY_ARROW_HEIGHT];
+        final float topBottomBarOffset = values[offset + GEOMETRY_BAR_OFFSET];
+
+        mArrowPath.rewind();
+        final float arrowEdge = -arrowShaftLength / 2;
+        // draw middle bar
+        mArrowPath.moveTo(arrowEdge + arrowShaftCut, 0);
+        mArrowPath.rLineTo(arrowShaftLength - arrowShaftCut * 2, 0);
+
+        // bottom bar
+        mArrowPath.moveTo(arrowEdge, topBottomBarOffset);
+        mArrowPath.rLineTo(arrowWidth, arrowHeight);
+
+        // top bar
+        mArrowPath.moveTo(arrowEdge, -topBottomBarOffset);
+        mArrowPath.rLineTo(arrowWidth, -arrowHeight);
+
+        mArrowPath.close();
+
+        // The path is transformed instead of the canvas, the parent rotates the whole canvas
+        // if spinning, if not, rotates it 180 to get the arrow pointing the other way for RTL.
+        final float barThickness = geometry.mBarThickness;
+        final float gapSize = geometry.mGapSize;
+        final int remainingSpace = (int) (bounds.height() - barThickness * 3 - gapSize * 2);
+        float yOffset = (remainingSpace / 4) * 2; // making sure it is a multiple of 2.
+        yOffset += barThickness * 1.5 + gapSize;
+
+        final float progress = (float) bucket / PROGRESS_BUCKETS;
+        final boolean spin = isSpinEnabled();
+        if (spin) {
+            // The whole canvas rotates as the transition happens
+            final float canvasRotate = lerp(flipToPointRight ? 0 : -180,
+                    flipToPointRight ? 180 : 0, progress);
+            mArrowMatrix.setRotate(canvasRotate * ((mMirrored ^ flipToPointRight) ? -1 : 1));
+        } else if (flipToPointRight) {
+            mArrowMatrix.setRotate(180);
+        } else {
+            mArrowMatrix.reset();
+        }
+        mArrowMatrix.postTranslate(bounds.centerX(), yOffset);
+        mArrowPath.transform(mArrowMatrix);
+
+        mPathGeometry = geometry;
+        mPathGeneration = geometry.mGeneration;
+        mPathBucket = bucket;
+        mPathMirrored = mMirrored;
+        mPathFlipped = flipToPointRight;
+        mPathSpin = spin;
+        mPathCenterX = bounds.centerX();
+        mPathHeight = bounds.height();
+    }
+
+    /**
+     * Linear interpolate between a and b with parameter t.
+     */
+    private static float lerp(float a, float b, float t) {
+        return a + (b - a) * t;
+    }
+
+    private boolean isVisiblePositionChange(float position) {
+        final float current = getProgress();
+        if (position == current) {
+            return false;
+        }
+        if (position <= 0.0F || position >= 1.0F) {
+            // always land exactly on the resting states
+            return true;
+        }
+
+        float epsilon = mPositionEpsilon;
+        if (epsilon < 0.0F) {
+            // bar ends spin half a turn around the center, i.e. pi/2 bar lengths per unit
+            epsilon = 1.0F / (Math.max(getBarLength(), 1.0F) * HALF_PI);
+        }
+        return Math.abs(position - current) >= epsilon;
+    }
+}
@@ -0,0 +1,120 @@
+package ru.shmakinv.android.widget.customizableactionbardrawertoggle;
+
+import android.content.Context;
+import android.support.annotation.NonNull;
+
+import java.util.HashMap;
+
+/**
+ * DrawerArrowDrawablePool
+ * <p>
+ * Opt-in pool of {@link DrawerArrowDrawableCompat} states. Drawables obtained for themes which
+ * resolve to the same color, bar size, gap, spin and arrow attributes share one paint used for
+ * drawing and one geometry cache, while each of them keeps its own progress. Call
+ * {@link android.graphics.drawable.Drawable#mutate()} before changing the appearance of a
+ * single pooled drawable. Only accessed from the main thread.
+ * <p>
+ * The pool saves the memory of the geometry cache, not construction time: every pooled
+ * drawable still runs the {@link android.support.v7.graphics.drawable.DrawerArrowDrawable}
+ * constructor, which resolves the style and allocates its own paint and path.
+ *
+ * @author Vyacheslav Shmakin
+ * @version 18.10.2026
+ */
+public final class DrawerArrowDrawablePool {
+
+    private static final HashMap<Key, DrawerArrowDrawableCompat.ArrowState> sStates =
+            new HashMap<>();
+    // reused for lookups, so hits don't allocate a key
+    private static final Key sProbe = new Key();
+
+    private DrawerArrowDrawablePool() {
+    }
+
+    /**
+     * Returns a drawable styled by the given themed context which shares its state with other
+     * pooled drawables of the same style. The style is resolved by the returned drawable itself,
+     * which then joins the pooled state of its attributes.
+     *
+     * @param themedContext context to resolve the drawerArrowStyle from
+     */
+    @NonNull
+    public static DrawerArrowDrawableCompat obtain(@NonNull Context themedContext) {
+        final DrawerArrowDrawableCompat drawable = new DrawerArrowDrawableCompat(themedContext);
+        sProbe.set(drawable);
+        final DrawerArrowDrawableCompat.ArrowState state = sStates.get(sProbe);
+        if (state != null) {
+            drawable.attachState(state);
+        } else {
+            final Key key = new Key();
+            key.set(drawable);
+            sStates.put(key, (DrawerArrowDrawableCompat.ArrowState) drawable.getConstantState());
+        }
+        return drawable;
+    }
+
+    /**
+     * Drops all pooled states. Drawables obtained before keep working.
+     */
+    public static void clear() {
+        sStates.clear();
+    }
+
+    private static final class Key {
+        int color;
+        float barThickness;
+        float barLength;
+        float gapSize;
+        boolean spin;
+        float arrowHeadLength;
+        float arrowShaftLength;
+        int size;
+        int direction;
+
+        void set(DrawerArrowDrawableCompat drawable) {
+            color = drawable.getColor();
+            barThickness = drawable.getBarThickness();
+            barLength = drawable.getBarLength();
+            gapSize = drawable.getGapSize();
+            spin = drawable.isSpinEnabled();
+            arrowHeadLength = drawable.getArrowHeadLength();
+            arrowShaftLength = drawable.getArrowShaftLength();
+            size = drawable.getIntrinsicWidth();
+            direction = drawable.getDirection();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            final Key key = (Key) o;
+            return color == key.color
+                    && barThickness == key.barThickness
+                    && barLength == key.barLength
+                    && gapSize == key.gapSize
+                    && spin == key.spin
+                    && arrowHeadLength == key.arrowHeadLength
+                    && arrowShaftLength == key.arrowShaftLength
+                    && size == key.size
+                    && direction == key.direction;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = color;
+            result = 31 * result + Float.floatToIntBits(barThickness);
+            result = 31 * result + Float.floatToIntBits(barLength);
+            result = 31 * result + Float.floatToIntBits(gapSize);
+            result = 31 * result + (spin ? 1 : 0);
+            result = 31 * result + Float.floatToIntBits(arrowHeadLength);
+            result = 31 * result + Float.floatToIntBits(arrowShaftLength);
+            result = 31 * result + size;
+            result = 31 * result + direction;
+            return result;
+        }
+    }
+}
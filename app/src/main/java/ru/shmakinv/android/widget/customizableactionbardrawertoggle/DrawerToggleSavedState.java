@@ -0,0 +1,122 @@
+package ru.shmakinv.android.widget.customizableactionbardrawertoggle;
+
+import android.os.Parcel;
+import android.os.Parcelable;
+
+/**
+ * DrawerToggleSavedState
+ * <p>
+ * Instance state of {@link ActionBarDrawerToggle}, including an indicator animation which was
+ * running when the state has been saved.
+ *
+ * @author Vyacheslav Shmakin
+ * @version 18.10.2026
+ */
+public final class DrawerToggleSavedState implements Parcelable {
+
+    private static final int FLAG_ROTATE_DIRECTION_BACK = 1;
+    private static final int FLAG_AUTO_RESET_ROTATE_DIRECTION = 1 << 1;
+    private static final int FLAG_ANIMATING = 1 << 2;
+    private static final int FLAG_ANIMATION_DECELERATE = 1 << 3;
+
+    final float position;
+    @DrawerImageState
+    final int imageState;
+    final int interpolatorDuration;
+    final boolean rotateDirectionBack;
+    final boolean autoResetRotateDirection;
+
+    final boolean animating;
+    final float animationStart;
+    final float animationEnd;
+    final int animationDuration;
+    // linear fraction of the animation duration which has already elapsed
+    final float animationElapsedFraction;
+    // animation follows the slide velocity instead of the interpolator
+    final boolean animationDecelerate;
+
+    DrawerToggleSavedState(float position, @DrawerImageState int imageState,
+                           int interpolatorDuration, boolean rotateDirectionBack,
+                           boolean autoResetRotateDirection, boolean animating,
+                           float animationStart, float animationEnd, int animationDuration,
+                           float animationElapsedFraction, boolean animationDecelerate) {
+        this.position = position;
+        this.imageState = imageState;
+        this.interpolatorDuration = interpolatorDuration;
+        this.rotateDirectionBack = rotateDirectionBack;
+        this.autoResetRotateDirection = autoResetRotateDirection;
+        this.animating = animating;
+        this.animationStart = animationStart;
+        this.animationEnd = animationEnd;
+        this.animationDuration = animationDuration;
+        this.animationElapsedFraction = animationElapsedFraction;
+        this.animationDecelerate = animationDecelerate;
+    }
+
+    @SuppressWarnings("WrongConstant")
+    private DrawerToggleSavedState(Parcel in) {
+        final int flags = in.readInt();
+        this.position = in.readFloat();
+        this.imageState = in.readInt();
+        this.interpolatorDuration = in.readInt();
+        this.rotateDirectionBack = (flags & FLAG_ROTATE_DIRECTION_BACK) != 0;
+        this.autoResetRotateDirection = (flags & FLAG_AUTO_RESET_ROTATE_DIRECTION) != 0;
+        this.animating = (flags & FLAG_ANIMATING) != 0;
+        this.animationDecelerate = (flags & FLAG_ANIMATION_DECELERATE) != 0;
+        if (animating) {
+            this.animationStart = in.readFloat();
+            this.animationEnd = in.readFloat();
+            this.animationDuration = in.readInt();
+            this.animationElapsedFraction = in.readFloat();
+        } else {
+            this.animationStart = 0.0F;
+            this.animationEnd = 0.0F;
+            this.animationDuration = 0;
+            this.animationElapsedFraction = 0.0F;
+        }
+    }
+
+    @Override
+    public void writeToParcel(Parcel dest, int flags) {
+        int stateFlags = 0;
+        if (rotateDirectionBack) {
+            stateFlags |= FLAG_ROTATE_DIRECTION_BACK;
+        }
+        if (autoResetRotateDirection) {
+            stateFlags |= FLAG_AUTO_RESET_ROTATE_DIRECTION;
+        }
+        if (animating) {
+            stateFlags |= FLAG_ANIMATING;
+        }
+        if (animationDecelerate) {
+            stateFlags |= FLAG_ANIMATION_DECELERATE;
+        }
+        dest.writeInt(stateFlags);
+        dest.writeFloat(position);
+        dest.writeInt(imageState);
+        dest.writeInt(interpolatorDuration);
+        if (animating) {
+            dest.writeFloat(animationStart);
+            dest.writeFloat(animationEnd);
+            dest.writeInt(animationDuration);
+            dest.writeFloat(animationElapsedFraction);
+        }
+    }
+
+    @Override
+    public int describeContents() {
+        return 0;
+    }
+
+    public static final Creator<DrawerToggleSavedState> CREATOR = new Creator<DrawerToggleSavedState>() {
+        @Override
+        public DrawerToggleSavedState createFromParcel(Parcel in) {
+            return new DrawerToggleSavedState(in);
+        }
+
+        @Override
+        public DrawerToggleSavedState[] newArray(int size) {
+            return new DrawerToggleSavedState[size];
+        }
+    };
+}
@@ -0,0 +1,86 @@
+package ru.shmakinv.android.widget.customizableactionbardrawertoggle;
+
+/**
+ * DrawerToggleState
+ * <p>
+ * Android-free part of {@link ActionBarDrawerToggle}: turns drawer offsets into the
+ * (position, image state) pair shown by the indicator and handles the rotate direction
+ * auto reset.
+ *
+ * @author Vyacheslav Shmakin
+ * @version 18.10.2026
+ */
+final class DrawerToggleState {
+
+    static final float START_POSITION = 0.0F;
+    static final float END_POSITION = 1.0F;
+
+    private float mPosition = Float.NaN;
+    @DrawerImageState
+    private int mImageState = DrawerImageState.TOGGLE_DRAWER_DEFAULT;
+    private boolean mRotateDirectionBack = false;
+    private boolean mAutoResetRotateDirection = true;
+
+    /**
+     * Applies a new drawer offset.
+     *
+     * @param offset drawer offset, clamped to [0, 1]
+     * @return true if the position or the image state has changed
+     */
+    boolean update(float offset) {
+        final float position = Math.min(END_POSITION, Math.max(START_POSITION, offset));
+        int imageState = DrawerImageState.TOGGLE_DRAWER_DEFAULT;
+
+        if (mRotateDirectionBack) {
+            imageState = DrawerImageState.TOGGLE_DRAWER_MIRRORED;
+        } else {
+            if (position == START_POSITION) {
+                imageState = DrawerImageState.TOGGLE_DRAWER_NORMAL;
+            } else if (position == END_POSITION) {
+                imageState = DrawerImageState.TOGGLE_DRAWER_MIRRORED;
+            }
+        }
+
+        final boolean changed = position != mPosition || imageState != mImageState;
+        mPosition = position;
+        mImageState = imageState;
+
+        if (mAutoResetRotateDirection && mRotateDirectionBack && position == END_POSITION) {
+            mRotateDirectionBack = false;
+        }
+        return changed;
+    }
+
+    /**
+     * Forgets the last applied state, so the next {@link #update(float)} reports a change.
+     */
+    void invalidate() {
+        mPosition = Float.NaN;
+        mImageState = DrawerImageState.TOGGLE_DRAWER_DEFAULT;
+    }
+
+    float getPosition() {
+        return mPosition;
+    }
+
+    @DrawerImageState
+    int getImageState() {
+        return mImageState;
+    }
+
+    boolean isRotateDirectionBack() {
+        return mRotateDirectionBack;
+    }
+
+    void setRotateDirectionBack(boolean rotateDirectionBack) {
+        this.mRotateDirectionBack = rotateDirectionBack;
+    }
+
+    boolean isAutoResetRotateDirection() {
+        return mAutoResetRotateDirection;
+    }
+
+    void setAutoResetRotateDirection(boolean autoResetRotateDirection) {
+        this.mAutoResetRotateDirection = autoResetRotateDirection;
+    }
+}
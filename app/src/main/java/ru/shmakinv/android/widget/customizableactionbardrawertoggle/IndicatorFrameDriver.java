@@ -0,0 +1,209 @@
+package ru.shmakinv.android.widget.customizableactionbardrawertoggle;
+
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.support.annotation.Nullable;
+import android.support.annotation.VisibleForTesting;
+import android.view.Choreographer;
+
+/**
+ * IndicatorFrameDriver
+ * <p>
+ * Drives the indicator animations of all {@link ActionBarDrawerToggle} instances from a single
+ * {@link Choreographer.FrameCallback}, so every active client is stepped once per display frame.
+ * The callback is only posted while at least one client is registered. Before API 16 a
+ * {@link Handler} is used to emulate frames. The driver is also the time source of the toggles,
+ * so tests can replace both frames and time with {@link #setInstance(IndicatorFrameDriver)}.
+ * Only accessed from the main thread.
+ *
+ * @author Vyacheslav Shmakin
+ * @version 18.10.2026
+ */
+final class IndicatorFrameDriver {
+
+    interface FrameClient {
+
+        /**
+         * Called once per frame while the client is registered.
+         *
+         * @param frameTimeNanos frame time in the {@link #nanoTime()} time base
+         * @return true to keep receiving frames, false to unregister
+         */
+        boolean doIndicatorFrame(long frameTimeNanos);
+    }
+
+    private static final long FALLBACK_FRAME_DELAY_MS = 16;
+    private static final int INITIAL_CAPACITY = 4;
+
+    private static IndicatorFrameDriver sInstance;
+
+    private final FrameScheduler mScheduler;
+    private FrameClient[] mClients = new FrameClient[INITIAL_CAPACITY];
+    private int mClientCount;
+    private boolean mScheduled;
+
+    static IndicatorFrameDriver getInstance() {
+        if (sInstance == null) {
+            sInstance = new IndicatorFrameDriver();
+        }
+        return sInstance;
+    }
+
+    /**
+     * Replaces the shared driver, e.g. with one driven by a virtual clock.
+     *
+     * @param driver driver to use, null to create the default one on next use
+     */
+    @VisibleForTesting
+    static void setInstance(@Nullable IndicatorFrameDriver driver) {
+        sInstance = driver;
+    }
+
+    private IndicatorFrameDriver() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+            mScheduler = new ChoreographerScheduler();
+        } else {
+            mScheduler = new HandlerScheduler();
+        }
+    }
+
+    /**
+     * @param scheduler scheduler which calls {@link #doFrame(long)} once a frame is requested
+     */
+    @VisibleForTesting
+    IndicatorFrameDriver(FrameScheduler scheduler) {
+        mScheduler = scheduler;
+    }
+
+    /**
+     * @return current time in the time base of the frame times
+     */
+    long nanoTime() {
+        return mScheduler.nanoTime();
+    }
+
+    void register(FrameClient client) {
+        if (isRegistered(client)) {
+            return;
+        }
+        if (mClientCount == mClients.length) {
+            final FrameClient[] clients = new FrameClient[mClientCount * 2];
+            System.arraycopy(mClients, 0, clients, 0, mClientCount);
+            mClients = clients;
+        }
+        mClients[mClientCount++] = client;
+        if (!mScheduled) {
+            mScheduled = true;
+            mScheduler.scheduleFrame();
+        }
+    }
+
+    void unregister(FrameClient client) {
+        for (int i = 0; i < mClientCount; i++) {
+            if (mClients[i] == client) {
+                removeAt(i);
+                break;
+            }
+        }
+        if (mClientCount == 0 && mScheduled) {
+            mScheduled = false;
+            mScheduler.cancelFrame();
+        }
+    }
+
+    boolean isRegistered(FrameClient client) {
+        for (int i = 0; i < mClientCount; i++) {
+            if (mClients[i] == client) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    void doFrame(long frameTimeNanos) {
+        mScheduled = false;
+        int i = 0;
+        while (i < mClientCount) {
+            final FrameClient client = mClients[i];
+            final boolean keep = client.doIndicatorFrame(frameTimeNanos);
+            // the client may have unregistered itself from its callback
+            if (i < mClientCount && mClients[i] == client) {
+                if (keep) {
+                    i++;
+                } else {
+                    removeAt(i);
+                }
+            }
+        }
+        if (mClientCount > 0 && !mScheduled) {
+            mScheduled = true;
+            mScheduler.scheduleFrame();
+        }
+    }
+
+    private void removeAt(int index) {
+        mClientCount--;
+        System.arraycopy(mClients, index + 1, mClients, index, mClientCount - index);
+        mClients[mClientCount] = null;
+    }
+
+    interface FrameScheduler {
+        void scheduleFrame();
+
+        void cancelFrame();
+
+        long nanoTime();
+    }
+
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+    private final class ChoreographerScheduler implements FrameScheduler, Choreographer.FrameCallback {
+
+        @Override
+        public void scheduleFrame() {
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+
+        @Override
+        public void cancelFrame() {
+            Choreographer.getInstance().removeFrameCallback(this);
+        }
+
+        @Override
+        public long nanoTime() {
+            // frame times of the Choreographer use the same time base
+            return System.nanoTime();
+        }
+
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            IndicatorFrameDriver.this.doFrame(frameTimeNanos);
+        }
+    }
+
+    private final class HandlerScheduler implements FrameScheduler, Runnable {
+
+        private final Handler mHandler = new Handler(Looper.getMainLooper());
+
+        @Override
+        public void scheduleFrame() {
+            mHandler.postDelayed(this, FALLBACK_FRAME_DELAY_MS);
+        }
+
+        @Override
+        public void cancelFrame() {
+            mHandler.removeCallbacks(this);
+        }
+
+        @Override
+        public long nanoTime() {
+            return System.nanoTime();
+        }
+
+        @Override
+        public void run() {
+            IndicatorFrameDriver.this.doFrame(nanoTime());
+        }
+    }
+}
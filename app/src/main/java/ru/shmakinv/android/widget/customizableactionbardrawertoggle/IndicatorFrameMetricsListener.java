@@ -0,0 +1,32 @@
+package ru.shmakinv.android.widget.customizableactionbardrawertoggle;
+
+/**
+ * IndicatorFrameMetricsListener
+ *
+ * @author Vyacheslav Shmakin
+ * @version 18.10.2026
+ */
+public interface IndicatorFrameMetricsListener {
+
+    /**
+     * Metrics of an {@link ActionBarDrawerToggle#animateDrawer(float, float)} run
+     */
+    int SOURCE_ANIMATION = 0;
+
+    /**
+     * Metrics of a drawer slide session, from the first slide until the drawer is idle again
+     */
+    int SOURCE_DRAG = 1;
+
+    /**
+     * Called once an indicator animation or a drawer slide session has finished.
+     *
+     * @param source             {@link #SOURCE_ANIMATION} or {@link #SOURCE_DRAG}
+     * @param framesRendered     frames rendered while the session was active
+     * @param framesDropped      frames missed according to the display refresh rate
+     * @param worstFrameGapNanos longest time between two consecutive frames
+     * @param durationNanos      time between the first and the last frame
+     */
+    void onIndicatorFrameMetrics(@IndicatorFrameSource int source, int framesRendered,
+                                 int framesDropped, long worstFrameGapNanos, long durationNanos);
+}
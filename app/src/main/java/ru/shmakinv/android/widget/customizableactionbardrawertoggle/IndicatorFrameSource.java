@@ -0,0 +1,20 @@
+package ru.shmakinv.android.widget.customizableactionbardrawertoggle;
+
+import android.support.annotation.IntDef;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+
+import static ru.shmakinv.android.widget.customizableactionbardrawertoggle.IndicatorFrameMetricsListener.SOURCE_ANIMATION;
+import static ru.shmakinv.android.widget.customizableactionbardrawertoggle.IndicatorFrameMetricsListener.SOURCE_DRAG;
+
+/**
+ * IndicatorFrameSource
+ *
+ * @author Vyacheslav Shmakin
+ * @version 18.10.2026
+ */
+@IntDef({SOURCE_ANIMATION, SOURCE_DRAG})
+@Retention(RetentionPolicy.SOURCE)
+public @interface IndicatorFrameSource {
+}
@@ -0,0 +1,93 @@
+package ru.shmakinv.android.widget.customizableactionbardrawertoggle;
+
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.support.annotation.RequiresApi;
+import android.view.Choreographer;
+
+/**
+ * IndicatorFrameTracker
+ * <p>
+ * Collects {@link Choreographer} frame times while an indicator session is active and reports
+ * them to an {@link IndicatorFrameMetricsListener}.
+ *
+ * @author Vyacheslav Shmakin
+ * @version 18.10.2026
+ */
+@RequiresApi(Build.VERSION_CODES.JELLY_BEAN)
+@TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+final class IndicatorFrameTracker implements Choreographer.FrameCallback {
+
+    private static final int NO_SOURCE = -1;
+    private static final long NANOS_PER_SECOND = 1000000000L;
+    private static final float DEFAULT_REFRESH_RATE = 60.0F;
+
+    private final IndicatorFrameMetricsListener mListener;
+    private final long mFrameIntervalNanos;
+
+    private int mSource = NO_SOURCE;
+    private int mFrames;
+    private int mDroppedFrames;
+    private long mFirstFrameNanos;
+    private long mLastFrameNanos;
+    private long mWorstFrameGapNanos;
+
+    IndicatorFrameTracker(IndicatorFrameMetricsListener listener, float refreshRate) {
+        mListener = listener;
+        mFrameIntervalNanos = (long) (NANOS_PER_SECOND
+                / (refreshRate > 0.0F ? refreshRate : DEFAULT_REFRESH_RATE));
+    }
+
+    /**
+     * Starts a session, finishing any session of another source first.
+     */
+    void begin(@IndicatorFrameSource int source) {
+        if (mSource == source) {
+            return;
+        }
+        end();
+        mSource = source;
+        mFrames = 0;
+        mDroppedFrames = 0;
+        mWorstFrameGapNanos = 0;
+        Choreographer.getInstance().postFrameCallback(this);
+    }
+
+    void end(@IndicatorFrameSource int source) {
+        if (mSource == source) {
+            end();
+        }
+    }
+
+    void end() {
+        if (mSource == NO_SOURCE) {
+            return;
+        }
+        final int source = mSource;
+        mSource = NO_SOURCE;
+        Choreographer.getInstance().removeFrameCallback(this);
+        if (mFrames > 0) {
+            mListener.onIndicatorFrameMetrics(source, mFrames, mDroppedFrames,
+                    mWorstFrameGapNanos, mLastFrameNanos - mFirstFrameNanos);
+        }
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        if (mFrames == 0) {
+            mFirstFrameNanos = frameTimeNanos;
+        } else {
+            final long gap = frameTimeNanos - mLastFrameNanos;
+            if (gap > mWorstFrameGapNanos) {
+                mWorstFrameGapNanos = gap;
+            }
+            final long missed = (gap + mFrameIntervalNanos / 2) / mFrameIntervalNanos - 1;
+            if (missed > 0) {
+                mDroppedFrames += missed;
+            }
+        }
+        mLastFrameNanos = frameTimeNanos;
+        mFrames++;
+        Choreographer.getInstance().postFrameCallback(this);
+    }
+}
@@ -0,0 +1,105 @@
+package ru.shmakinv.android.widget.customizableactionbardrawertoggle;
+
+import android.animation.ValueAnimator;
+import android.annotation.SuppressLint;
+import android.annotation.TargetApi;
+import android.app.ActivityManager;
+import android.content.ContentResolver;
+import android.content.Context;
+import android.database.ContentObserver;
+import android.net.Uri;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.PowerManager;
+import android.provider.Settings;
+
+/**
+ * IndicatorPowerPolicy
+ * <p>
+ * Reads the system settings which decide how much work indicator animations may spend. Only
+ * accessed from the main thread.
+ *
+ * @author Vyacheslav Shmakin
+ * @version 18.10.2026
+ */
+final class IndicatorPowerPolicy {
+
+    private static final String ANIMATOR_DURATION_SCALE = "animator_duration_scale";
+
+    // settings value before API 26, kept up to date by sDurationScaleObserver
+    private static float sAnimatorDurationScale = 1.0F;
+    private static ContentObserver sDurationScaleObserver;
+
+    private IndicatorPowerPolicy() {
+    }
+
+    /**
+     * Returns the animator duration scale from developer options or accessibility settings.
+     * Before API 26 the setting is read once and refreshed whenever it changes.
+     */
+    @SuppressLint("NewApi")
+    static float getAnimatorDurationScale(Context context) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            return ValueAnimator.getDurationScale();
+        }
+        if (sDurationScaleObserver == null) {
+            final Context applicationContext = context.getApplicationContext();
+            final ContentResolver resolver = (applicationContext != null
+                    ? applicationContext : context).getContentResolver();
+            sDurationScaleObserver = new ContentObserver(new Handler(Looper.getMainLooper())) {
+                @Override
+                public void onChange(boolean selfChange) {
+                    sAnimatorDurationScale = readAnimatorDurationScale(resolver);
+                }
+            };
+            resolver.registerContentObserver(getAnimatorDurationScaleUri(), false,
+                    sDurationScaleObserver);
+            sAnimatorDurationScale = readAnimatorDurationScale(resolver);
+        }
+        return sAnimatorDurationScale;
+    }
+
+    @SuppressWarnings("deprecation")
+    private static float readAnimatorDurationScale(ContentResolver resolver) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR1) {
+            return Settings.Global.getFloat(resolver, Settings.Global.ANIMATOR_DURATION_SCALE, 1.0F);
+        }
+        return Settings.System.getFloat(resolver, ANIMATOR_DURATION_SCALE, 1.0F);
+    }
+
+    @SuppressWarnings("deprecation")
+    private static Uri getAnimatorDurationScaleUri() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR1) {
+            return Settings.Global.getUriFor(Settings.Global.ANIMATOR_DURATION_SCALE);
+        }
+        return Settings.System.getUriFor(ANIMATOR_DURATION_SCALE);
+    }
+
+    /**
+     * Returns whether battery saver is on or the device is a low RAM device.
+     */
+    static boolean isPowerConstrained(Context context) {
+        return isPowerSaveMode(context) || isLowRamDevice(context);
+    }
+
+    @TargetApi(Build.VERSION_CODES.LOLLIPOP)
+    private static boolean isPowerSaveMode(Context context) {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.LOLLIPOP) {
+            return false;
+        }
+        final PowerManager powerManager =
+                (PowerManager) context.getSystemService(Context.POWER_SERVICE);
+        return powerManager != null && powerManager.isPowerSaveMode();
+    }
+
+    @TargetApi(Build.VERSION_CODES.KITKAT)
+    private static boolean isLowRamDevice(Context context) {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.KITKAT) {
+            return false;
+        }
+        final ActivityManager activityManager =
+                (ActivityManager) context.getSystemService(Context.ACTIVITY_SERVICE);
+        return activityManager != null && activityManager.isLowRamDevice();
+    }
+}
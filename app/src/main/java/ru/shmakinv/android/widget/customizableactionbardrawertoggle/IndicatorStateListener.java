@@ -0,0 +1,22 @@
+package ru.shmakinv.android.widget.customizableactionbardrawertoggle;
+
+/**
+ * IndicatorStateListener
+ *
+ * @author Vyacheslav Shmakin
+ * @version 18.10.2026
+ */
+public interface IndicatorStateListener {
+
+    /**
+     * Called at most once per frame after the indicator or the drawer motion state changed.
+     *
+     * @param position    indicator position, from 0 (closed) to 1 (open)
+     * @param imageState  indicator image state
+     * @param drawerState {@link android.support.v4.widget.DrawerLayout#STATE_IDLE},
+     *                    {@link android.support.v4.widget.DrawerLayout#STATE_DRAGGING} or
+     *                    {@link android.support.v4.widget.DrawerLayout#STATE_SETTLING}
+     */
+    void onIndicatorStateChanged(float position, @DrawerImageState int imageState,
+                                 int drawerState);
+}
@@ -0,0 +1,67 @@
+package ru.shmakinv.android.widget.customizableactionbardrawertoggle;
+
+import android.animation.TimeInterpolator;
+import android.support.annotation.NonNull;
+import android.view.animation.Interpolator;
+
+/**
+ * LookupTableInterpolator
+ * <p>
+ * Samples the wrapped interpolator once into a table of {@code resolution + 1} values and
+ * linearly interpolates between neighbouring samples afterwards, so animation frames never
+ * evaluate the source curve.
+ *
+ * @author Vyacheslav Shmakin
+ * @version 18.10.2026
+ */
+public class LookupTableInterpolator implements Interpolator {
+
+    public static final int DEFAULT_RESOLUTION = 128;
+
+    private final TimeInterpolator mSource;
+    private final float[] mValues;
+    private final float mStepSize;
+
+    public LookupTableInterpolator(@NonNull TimeInterpolator source) {
+        this(source, DEFAULT_RESOLUTION);
+    }
+
+    public LookupTableInterpolator(@NonNull TimeInterpolator source, int resolution) {
+        if (resolution < 1) {
+            throw new IllegalArgumentException("Resolution must be positive: " + resolution);
+        }
+        mSource = source;
+        mValues = new float[resolution + 1];
+        mStepSize = 1.0F / resolution;
+        for (int i = 0; i <= resolution; i++) {
+            mValues[i] = source.getInterpolation(i * mStepSize);
+        }
+    }
+
+    /**
+     * Returns the interpolator the table has been sampled from.
+     */
+    public TimeInterpolator getSource() {
+        return mSource;
+    }
+
+    public int getResolution() {
+        return mValues.length - 1;
+    }
+
+    @Override
+    public float getInterpolation(float input) {
+        if (input <= 0.0F) {
+            return mValues[0];
+        }
+        final int last = mValues.length - 1;
+        if (input >= 1.0F) {
+            return mValues[last];
+        }
+
+        final float position = input * last;
+        final int index = Math.min((int) position, last - 1);
+        final float weight = position - index;
+        return mValues[index] + weight * (mValues[index + 1] - mValues[index]);
+    }
+}
@@ -11,6 +11,7 @@ import android.view.animation.Interpolator;
 public class MaterialInterpolator implements Interpolator {
     @Override
     public float getInterpolation(float x) {
-        return (float) (6 * Math.pow(x, 2) - 8 * Math.pow(x, 3) + 3 * Math.pow(x, 4));
+        // 6x^2 - 8x^3 + 3x^4 in Horner form
+        return x * x * (6F + x * (-8F + 3F * x));
     }
 }
@@ -0,0 +1,194 @@
+package ru.shmakinv.android.widget.customizableactionbardrawertoggle;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.v4.view.GravityCompat;
+import android.support.v4.view.ViewCompat;
+import android.support.v4.widget.DrawerLayout;
+import android.view.Gravity;
+import android.view.View;
+import android.view.ViewGroup;
+
+import java.util.Arrays;
+
+/**
+ * SlideTraceRecorder
+ * <p>
+ * {@link DrawerLayout.DrawerListener} decorator which records the drawer callbacks together
+ * with their timestamps into a compact binary trace, e.g. to capture the flings and jitter of
+ * real sessions in production. The unit tests replay such traces deterministically against
+ * {@link ActionBarDrawerToggle} on a virtual clock. Timestamps are taken from the time source
+ * of the toggle, so recording and replay share one clock.
+ * <p>
+ * Trace format: magic {@code 'S' 'T'}, version byte, then a sequence of events. Each event is
+ * a type byte, the time since the previous event in microseconds as an unsigned varint and an
+ * optional payload. Drawer events carry the absolute horizontal gravity of the drawer as a
+ * byte, slide events additionally the slide offset as a 4 byte float and state changes the
+ * drawer state as a byte.
+ *
+ * @author Vyacheslav Shmakin
+ * @version 18.10.2026
+ */
+public final class SlideTraceRecorder implements DrawerLayout.DrawerListener {
+
+    // trace format, shared with the replay of the tests
+    static final byte MAGIC_0 = 'S';
+    static final byte MAGIC_1 = 'T';
+    static final byte VERSION = 2;
+    static final int HEADER_SIZE = 3;
+
+    static final byte EVENT_SLIDE = 0;
+    static final byte EVENT_OPENED = 1;
+    static final byte EVENT_CLOSED = 2;
+    static final byte EVENT_STATE_CHANGED = 3;
+
+    static final long NANOS_PER_MICRO = 1000L;
+    private static final int DEFAULT_CAPACITY = 1024;
+
+    private final DrawerLayout.DrawerListener mDelegate;
+
+    private byte[] mBuffer = new byte[DEFAULT_CAPACITY];
+    private int mSize;
+    private long mLastEventNanos;
+    private boolean mRecording;
+
+    /**
+     * @param delegate listener which receives all callbacks, may be null to record only
+     */
+    public SlideTraceRecorder(@Nullable DrawerLayout.DrawerListener delegate) {
+        mDelegate = delegate;
+        reset();
+    }
+
+    /**
+     * Starts recording. Events received while not recording are only forwarded.
+     */
+    public void start() {
+        mRecording = true;
+    }
+
+    /**
+     * Stops recording, the recorded trace is kept.
+     */
+    public void stop() {
+        mRecording = false;
+    }
+
+    /**
+     * @return true if events are recorded
+     */
+    public boolean isRecording() {
+        return mRecording;
+    }
+
+    /**
+     * Drops the recorded trace.
+     */
+    public void reset() {
+        mBuffer[0] = MAGIC_0;
+        mBuffer[1] = MAGIC_1;
+        mBuffer[2] = VERSION;
+        mSize = HEADER_SIZE;
+        mLastEventNanos = 0;
+    }
+
+    /**
+     * @return copy of the recorded trace
+     */
+    @NonNull
+    public byte[] toByteArray() {
+        return Arrays.copyOf(mBuffer, mSize);
+    }
+
+    @Override
+    public void onDrawerSlide(View drawerView, float slideOffset) {
+        if (mRecording) {
+            writeDrawerEvent(EVENT_SLIDE, drawerView);
+            writeInt(Float.floatToIntBits(slideOffset));
+        }
+        if (mDelegate != null) {
+            mDelegate.onDrawerSlide(drawerView, slideOffset);
+        }
+    }
+
+    @Override
+    public void onDrawerOpened(View drawerView) {
+        if (mRecording) {
+            writeDrawerEvent(EVENT_OPENED, drawerView);
+        }
+        if (mDelegate != null) {
+            mDelegate.onDrawerOpened(drawerView);
+        }
+    }
+
+    @Override
+    public void onDrawerClosed(View drawerView) {
+        if (mRecording) {
+            writeDrawerEvent(EVENT_CLOSED, drawerView);
+        }
+        if (mDelegate != null) {
+            mDelegate.onDrawerClosed(drawerView);
+        }
+    }
+
+    @Override
+    public void onDrawerStateChanged(int newState) {
+        if (mRecording) {
+            writeEvent(EVENT_STATE_CHANGED);
+            writeByte(newState);
+        }
+        if (mDelegate != null) {
+            mDelegate.onDrawerStateChanged(newState);
+        }
+    }
+
+    private void writeDrawerEvent(byte type, View drawerView) {
+        writeEvent(type);
+        writeByte(getAbsoluteGravity(drawerView));
+    }
+
+    private void writeEvent(byte type) {
+        final long now = IndicatorFrameDriver.getInstance().nanoTime();
+        final long delta = mSize == HEADER_SIZE ? 0 : (now - mLastEventNanos) / NANOS_PER_MICRO;
+        mLastEventNanos = now;
+        writeByte(type);
+        writeVarLong(delta > 0 ? delta : 0);
+    }
+
+    private static int getAbsoluteGravity(View drawerView) {
+        final ViewGroup.LayoutParams params = drawerView.getLayoutParams();
+        if (!(params instanceof DrawerLayout.LayoutParams)) {
+            return Gravity.LEFT;
+        }
+        return GravityCompat.getAbsoluteGravity(((DrawerLayout.LayoutParams) params).gravity,
+                ViewCompat.getLayoutDirection(drawerView)) & Gravity.HORIZONTAL_GRAVITY_MASK;
+    }
+
+    private void writeByte(int value) {
+        ensureCapacity(1);
+        mBuffer[mSize++] = (byte) value;
+    }
+
+    private void writeVarLong(long value) {
+        ensureCapacity(10);
+        while ((value & ~0x7FL) != 0) {
+            mBuffer[mSize++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        mBuffer[mSize++] = (byte) value;
+    }
+
+    private void writeInt(int value) {
+        ensureCapacity(4);
+        mBuffer[mSize++] = (byte) (value >>> 24);
+        mBuffer[mSize++] = (byte) (value >>> 16);
+        mBuffer[mSize++] = (byte) (value >>> 8);
+        mBuffer[mSize++] = (byte) value;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (mSize + extra > mBuffer.length) {
+            mBuffer = Arrays.copyOf(mBuffer, Math.max(mBuffer.length * 2, mSize + extra));
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package ru.shmakinv.android.widget.customizableactionbardrawertoggle;
+
+import android.app.Activity;
+import android.os.Build;
+import android.support.v4.widget.DrawerLayout;
+import android.support.v7.widget.Toolbar;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * DelegateStartupBenchmarkTest
+ * <p>
+ * Measures wall time and allocations of {@code new ActionBarDrawerToggle(...)} and of its first
+ * {@link ActionBarDrawerToggle#syncState(android.os.Bundle)} for every Delegate a toggle can be
+ * created with, and fails when the mean of either phase exceeds the thresholds. The thresholds
+ * can be set with the {@value #PROPERTY_MAX_MICROS} and {@value #PROPERTY_MAX_BYTES} system
+ * properties, e.g. {@code ./gradlew test -DdrawerToggle.benchmark.maxMicros=500}.
+ * <p>
+ * Every iteration creates a new toggle for the same Activity, so process wide caches are warm
+ * like for every Activity after the first one. DummyDelegate is only used before API 14, which
+ * Robolectric cannot run.
+ *
+ * @author Vyacheslav Shmakin
+ * @version 18.10.2026
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE, sdk = 27)
+public class DelegateStartupBenchmarkTest {
+
+    static final String PROPERTY_MAX_MICROS = "drawerToggle.benchmark.maxMicros";
+    static final String PROPERTY_MAX_BYTES = "drawerToggle.benchmark.maxBytes";
+
+    // generous defaults, Robolectric is a lot slower than a device
+    private static final long DEFAULT_MAX_MICROS = 5000;
+    private static final long DEFAULT_MAX_BYTES = 256 * 1024;
+    private static final int WARM_UP_ITERATIONS = 50;
+    private static final int ITERATIONS = 200;
+
+    private com.sun.management.ThreadMXBean mThreadBean;
+    private long mThreadId;
+    private long mMaxNanos;
+    private long mMaxBytes;
+
+    private interface ToggleFactory {
+        ActionBarDrawerToggle create();
+    }
+
+    @Before
+    public void setUp() {
+        final java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        mThreadBean = (com.sun.management.ThreadMXBean) bean;
+        assumeTrue(mThreadBean.isThreadAllocatedMemorySupported());
+        mThreadBean.setThreadAllocatedMemoryEnabled(true);
+        mThreadId = Thread.currentThread().getId();
+
+        mMaxNanos = Long.getLong(PROPERTY_MAX_MICROS, DEFAULT_MAX_MICROS) * 1000;
+        mMaxBytes = Long.getLong(PROPERTY_MAX_BYTES, DEFAULT_MAX_BYTES);
+    }
+
+    @Test
+    public void toolbarCompatDelegate() {
+        final ToolbarBindingVisibilityTest.ToolbarActivity activity =
+                Robolectric.buildActivity(ToolbarBindingVisibilityTest.ToolbarActivity.class)
+                        .create().get();
+        benchmark("ToolbarCompatDelegate", new ToggleFactory() {
+            @Override
+            public ActionBarDrawerToggle create() {
+                return new ActionBarDrawerToggle(activity, activity.mDrawerLayout,
+                        activity.mMainToolbar, android.R.string.yes, android.R.string.no);
+            }
+        });
+    }
+
+    @Test
+    public void jellybeanMr2Delegate() {
+        benchmarkActionBar("JellybeanMr2Delegate");
+    }
+
+    @Test
+    @Config(sdk = Build.VERSION_CODES.JELLY_BEAN_MR1)
+    public void icsDelegate() {
+        benchmarkActionBar("IcsDelegate");
+    }
+
+    @Test
+    public void delegateProvider() {
+        final SlideTraceReplayTest.DelegateActivity activity =
+                Robolectric.buildActivity(SlideTraceReplayTest.DelegateActivity.class)
+                        .create().get();
+        final DrawerLayout drawerLayout = new DrawerLayout(activity);
+        benchmark("DelegateProvider", new ToggleFactory() {
+            @Override
+            public ActionBarDrawerToggle create() {
+                return new ActionBarDrawerToggle(activity, drawerLayout,
+                        android.R.string.yes, android.R.string.no);
+            }
+        });
+    }
+
+    private void benchmarkActionBar(String name) {
+        final LegacyActionBarLayoutTest.HoloActivity activity =
+                Robolectric.buildActivity(LegacyActionBarLayoutTest.HoloActivity.class)
+                        .create().start().resume().visible().get();
+        activity.getActionBar().setDisplayHomeAsUpEnabled(true);
+        benchmark(name, new ToggleFactory() {
+            @Override
+            public ActionBarDrawerToggle create() {
+                return new ActionBarDrawerToggle(activity, activity.mDrawerLayout,
+                        android.R.string.yes, android.R.string.no);
+            }
+        });
+    }
+
+    private void benchmark(String name, ToggleFactory factory) {
+        long constructionNanos = 0;
+        long constructionBytes = 0;
+        long syncNanos = 0;
+        long syncBytes = 0;
+        for (int i = 0; i < WARM_UP_ITERATIONS + ITERATIONS; i++) {
+            final long startNanos = System.nanoTime();
+            final long startBytes = allocatedBytes();
+            final ActionBarDrawerToggle toggle = factory.create();
+            final long constructedNanos = System.nanoTime();
+            final long constructedBytes = allocatedBytes();
+            toggle.syncState(null);
+            final long syncedNanos = System.nanoTime();
+            final long syncedBytes = allocatedBytes();
+            if (i >= WARM_UP_ITERATIONS) {
+                constructionNanos += constructedNanos - startNanos;
+                constructionBytes += constructedBytes - startBytes;
+                syncNanos += syncedNanos - constructedNanos;
+                syncBytes += syncedBytes - constructedBytes;
+            }
+        }
+
+        constructionNanos /= ITERATIONS;
+        constructionBytes /= ITERATIONS;
+        syncNanos /= ITERATIONS;
+        syncBytes /= ITERATIONS;
+        final String report = String.format(Locale.US,
+                "%s: construction %.1f us, %d B; first syncState %.1f us, %d B",
+                name, constructionNanos / 1000.0, constructionBytes, syncNanos / 1000.0, syncBytes);
+        System.out.println(report);
+        assertTrue(report, constructionNanos <= mMaxNanos && syncNanos <= mMaxNanos);
+        assertTrue(report, constructionBytes <= mMaxBytes && syncBytes <= mMaxBytes);
+    }
+
+    private long allocatedBytes() {
+        return mThreadBean.getThreadAllocatedBytes(mThreadId);
+    }
+}
@@ -0,0 +1,331 @@
+package ru.shmakinv.android.widget.customizableactionbardrawertoggle;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Matrix;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.Rect;
+import android.support.v4.graphics.drawable.DrawableCompat;
+import android.support.v4.view.ViewCompat;
+import android.support.v7.graphics.drawable.DrawerArrowDrawable;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.Implementation;
+import org.robolectric.annotation.Implements;
+import org.robolectric.shadow.api.Shadow;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * DrawerArrowRenderingTest
+ * <p>
+ * Compares the canvas operations of {@link DrawerArrowDrawableCompat#draw(Canvas)} with the ones
+ * of {@link DrawerArrowDrawable#draw(Canvas)}. The compat drawable transforms its path instead of
+ * the canvas, so every drawn path is recorded as line segments in canvas coordinates. Positions
+ * on the 1/{@value DrawerArrowDrawableCompat#PROGRESS_BUCKETS} grid have to match exactly, other
+ * positions are drawn with the closest grid position and may be off by one pixel.
+ *
+ * @author Vyacheslav Shmakin
+ * @version 18.10.2026
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE, sdk = 27,
+        shadows = DrawerArrowRenderingTest.ShadowRecordingPath.class)
+public class DrawerArrowRenderingTest {
+
+    private static final float GRID_TOLERANCE = 0.001F;
+    private static final float OFF_GRID_TOLERANCE = 1.0F + GRID_TOLERANCE;
+    private static final int BUCKETS = DrawerArrowDrawableCompat.PROGRESS_BUCKETS;
+
+    private static final float[] GRID_PROGRESS = {
+            0.0F, 1.0F / BUCKETS, 77.0F / BUCKETS, 0.5F, 300.0F / BUCKETS, 511.0F / BUCKETS, 1.0F
+    };
+    private static final float[] OFF_GRID_PROGRESS = {0.0009F, 0.1234F, 0.5001F, 0.7777F, 0.9995F};
+    private static final boolean[] BOOLEANS = {false, true};
+    private static final int[] DIRECTIONS = {
+            DrawerArrowDrawable.ARROW_DIRECTION_LEFT,
+            DrawerArrowDrawable.ARROW_DIRECTION_RIGHT,
+            DrawerArrowDrawable.ARROW_DIRECTION_START,
+            DrawerArrowDrawable.ARROW_DIRECTION_END
+    };
+    private static final int[] LAYOUT_DIRECTIONS = {
+            ViewCompat.LAYOUT_DIRECTION_LTR, ViewCompat.LAYOUT_DIRECTION_RTL
+    };
+    private static final Rect[] BOUNDS = {
+            new Rect(0, 0, 48, 48), new Rect(0, 0, 48, 40), new Rect(12, 8, 60, 56),
+            new Rect(0, 0, 37, 29)
+    };
+
+    private DrawerArrowDrawable mReference;
+    private DrawerArrowDrawableCompat mCompat;
+    private RecordingCanvas mReferenceCanvas;
+    private RecordingCanvas mCompatCanvas;
+
+    @Before
+    public void setUp() {
+        final Context context = RuntimeEnvironment.application;
+        mReference = new DrawerArrowDrawable(context);
+        mCompat = new DrawerArrowDrawableCompat(context);
+        mReferenceCanvas = new RecordingCanvas();
+        mCompatCanvas = new RecordingCanvas();
+    }
+
+    @Test
+    public void gridPositionsDrawTheSameSegments() {
+        compareAll(GRID_PROGRESS, GRID_TOLERANCE);
+    }
+
+    @Test
+    public void offGridPositionsDrawWithinOnePixel() {
+        compareAll(OFF_GRID_PROGRESS, OFF_GRID_TOLERANCE);
+    }
+
+    @Test
+    public void barDimensionChangesAreDrawn() {
+        // the cached geometry has to follow the dimensions of the drawable
+        setDimensions(2.0F, 18.0F, 3.0F, 8.0F, 16.0F);
+        compare(0.5F, true, false, DrawerArrowDrawable.ARROW_DIRECTION_START,
+                ViewCompat.LAYOUT_DIRECTION_LTR, BOUNDS[0], GRID_TOLERANCE);
+        setDimensions(5.0F, 40.0F, 7.0F, 20.0F, 36.0F);
+        compare(0.5F, true, false, DrawerArrowDrawable.ARROW_DIRECTION_START,
+                ViewCompat.LAYOUT_DIRECTION_LTR, BOUNDS[0], GRID_TOLERANCE);
+    }
+
+    private void compareAll(float[] progressValues, float tolerance) {
+        setDimensions(4.0F, 36.0F, 6.0F, 16.0F, 32.0F);
+        // one pair of drawables for all combinations, so the path cache is exercised as well;
+        // consecutive draws often differ in the bounds only, e.g. in their height
+        for (float progress : progressValues) {
+            for (boolean mirror : BOOLEANS) {
+                for (boolean spin : BOOLEANS) {
+                    for (int direction : DIRECTIONS) {
+                        for (int layoutDirection : LAYOUT_DIRECTIONS) {
+                            for (Rect bounds : BOUNDS) {
+                                compare(progress, spin, mirror, direction, layoutDirection,
+                                        bounds, tolerance);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private void compare(float progress, boolean spin, boolean mirror, int direction,
+                         int layoutDirection, Rect bounds, float tolerance) {
+        final String config = "progress " + progress + ", spin " + spin + ", mirror " + mirror
+                + ", direction " + direction + ", layout direction " + layoutDirection
+                + ", bounds " + bounds.toShortString();
+        for (DrawerArrowDrawable drawable : Arrays.asList(mReference, mCompat)) {
+            drawable.setSpinEnabled(spin);
+            drawable.setVerticalMirror(mirror);
+            drawable.setDirection(direction);
+            DrawableCompat.setLayoutDirection(drawable, layoutDirection);
+            drawable.setBounds(bounds);
+            drawable.setProgress(progress);
+        }
+        mReferenceCanvas.mOperations.clear();
+        mCompatCanvas.mOperations.clear();
+        mReference.draw(mReferenceCanvas);
+        mCompat.draw(mCompatCanvas);
+
+        assertEquals(config, 1, mReferenceCanvas.mOperations.size());
+        assertEquals(config, 1, mCompatCanvas.mOperations.size());
+        final DrawOperation expected = mReferenceCanvas.mOperations.get(0);
+        final DrawOperation actual = mCompatCanvas.mOperations.get(0);
+        assertEquals(config, expected.mColor, actual.mColor);
+        assertEquals(config, expected.mAlpha, actual.mAlpha);
+        assertEquals(config, expected.mStrokeWidth, actual.mStrokeWidth, 0.0F);
+        // middle bar, both arrow head bars and the closing segment
+        assertEquals(config, 4 * 4, expected.mSegments.length);
+        assertEquals(config, expected.mSegments.length, actual.mSegments.length);
+        for (int i = 0; i < expected.mSegments.length; i++) {
+            assertEquals(config + ", coordinate " + i,
+                    expected.mSegments[i], actual.mSegments[i], tolerance);
+        }
+    }
+
+    private void setDimensions(float barThickness, float barLength, float gapSize,
+                               float arrowHeadLength, float arrowShaftLength) {
+        for (DrawerArrowDrawable drawable : Arrays.asList(mReference, mCompat)) {
+            drawable.setColor(Color.DKGRAY);
+            drawable.setBarThickness(barThickness);
+            drawable.setBarLength(barLength);
+            drawable.setGapSize(gapSize);
+            drawable.setArrowHeadLength(arrowHeadLength);
+            drawable.setArrowShaftLength(arrowShaftLength);
+        }
+    }
+
+    /**
+     * Path drawn by a canvas as line segments in canvas coordinates, with the paint it was
+     * drawn with.
+     */
+    private static final class DrawOperation {
+
+        final float[] mSegments;
+        final int mColor;
+        final int mAlpha;
+        final float mStrokeWidth;
+
+        DrawOperation(float[] segments, Paint paint) {
+            mSegments = segments;
+            mColor = paint.getColor();
+            mAlpha = paint.getAlpha();
+            mStrokeWidth = paint.getStrokeWidth();
+        }
+    }
+
+    /**
+     * Canvas which tracks its own translation and rotation and records the drawn paths.
+     */
+    private static final class RecordingCanvas extends Canvas {
+
+        final ArrayList<DrawOperation> mOperations = new ArrayList<>();
+        private final ArrayList<double[]> mSavedMatrices = new ArrayList<>();
+        // a, b, c, d, tx, ty: x' = a * x + c * y + tx, y' = b * x + d * y + ty
+        private double[] mMatrix = {1, 0, 0, 1, 0, 0};
+
+        @Override
+        public int save() {
+            mSavedMatrices.add(mMatrix.clone());
+            return mSavedMatrices.size();
+        }
+
+        @Override
+        public void restore() {
+            mMatrix = mSavedMatrices.remove(mSavedMatrices.size() - 1);
+        }
+
+        @Override
+        public void translate(float dx, float dy) {
+            mMatrix[4] += mMatrix[0] * dx + mMatrix[2] * dy;
+            mMatrix[5] += mMatrix[1] * dx + mMatrix[3] * dy;
+        }
+
+        @Override
+        public void rotate(float degrees) {
+            final double radians = Math.toRadians(degrees);
+            final double cos = Math.cos(radians);
+            final double sin = Math.sin(radians);
+            final double a = mMatrix[0];
+            final double b = mMatrix[1];
+            final double c = mMatrix[2];
+            final double d = mMatrix[3];
+            mMatrix[0] = a * cos + c * sin;
+            mMatrix[1] = b * cos + d * sin;
+            mMatrix[2] = c * cos - a * sin;
+            mMatrix[3] = d * cos - b * sin;
+        }
+
+        @Override
+        public void drawPath(Path path, Paint paint) {
+            final ShadowRecordingPath shadow = Shadow.extract(path);
+            final float[] segments = shadow.getSegments();
+            for (int i = 0; i < segments.length; i += 2) {
+                final double x = segments[i];
+                final double y = segments[i + 1];
+                segments[i] = (float) (mMatrix[0] * x + mMatrix[2] * y + mMatrix[4]);
+                segments[i + 1] = (float) (mMatrix[1] * x + mMatrix[3] * y + mMatrix[5]);
+            }
+            mOperations.add(new DrawOperation(segments, paint));
+        }
+    }
+
+    /**
+     * Records the line segments of a path, including relative lines, contour closing and
+     * transformations, which the default shadow ignores.
+     */
+    @Implements(Path.class)
+    public static class ShadowRecordingPath {
+
+        // x0, y0, x1, y1 for every segment
+        private final ArrayList<float[]> mSegments = new ArrayList<>();
+        private float mX;
+        private float mY;
+        private float mContourX;
+        private float mContourY;
+
+        @Implementation
+        public void reset() {
+            rewind();
+        }
+
+        @Implementation
+        public void rewind() {
+            mSegments.clear();
+            moveTo(0, 0);
+        }
+
+        @Implementation
+        public void moveTo(float x, float y) {
+            mX = x;
+            mY = y;
+            mContourX = x;
+            mContourY = y;
+        }
+
+        @Implementation
+        public void lineTo(float x, float y) {
+            mSegments.add(new float[]{mX, mY, x, y});
+            mX = x;
+            mY = y;
+        }
+
+        @Implementation
+        public void rLineTo(float dx, float dy) {
+            lineTo(mX + dx, mY + dy);
+        }
+
+        @Implementation
+        public void close() {
+            if (mX != mContourX || mY != mContourY) {
+                lineTo(mContourX, mContourY);
+            }
+        }
+
+        @Implementation
+        public void transform(Matrix matrix) {
+            final float[] values = new float[9];
+            matrix.getValues(values);
+            for (float[] segment : mSegments) {
+                map(values, segment, 0);
+                map(values, segment, 2);
+            }
+            final float[] position = {mX, mY, mContourX, mContourY};
+            map(values, position, 0);
+            map(values, position, 2);
+            mX = position[0];
+            mY = position[1];
+            mContourX = position[2];
+            mContourY = position[3];
+        }
+
+        float[] getSegments() {
+            final float[] segments = new float[mSegments.size() * 4];
+            for (int i = 0; i < mSegments.size(); i++) {
+                System.arraycopy(mSegments.get(i), 0, segments, i * 4, 4);
+            }
+            return segments;
+        }
+
+        private static void map(float[] values, float[] points, int index) {
+            final float x = points[index];
+            final float y = points[index + 1];
+            points[index] = values[Matrix.MSCALE_X] * x + values[Matrix.MSKEW_X] * y
+                    + values[Matrix.MTRANS_X];
+            points[index + 1] = values[Matrix.MSKEW_Y] * x + values[Matrix.MSCALE_Y] * y
+                    + values[Matrix.MTRANS_Y];
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package ru.shmakinv.android.widget.customizableactionbardrawertoggle;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * HotPathAllocationTest
+ * <p>
+ * Guards the per-frame path of the toggle against heap allocations after warm-up.
+ *
+ * @author Vyacheslav Shmakin
+ * @version 18.10.2026
+ */
+public class HotPathAllocationTest {
+
+    private static final int FRAMES = 10000;
+
+    private com.sun.management.ThreadMXBean mThreadBean;
+    private long mThreadId;
+    private long mMeasurementOverhead;
+    private float mSink;
+
+    @Before
+    public void setUp() {
+        final java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        mThreadBean = (com.sun.management.ThreadMXBean) bean;
+        assumeTrue(mThreadBean.isThreadAllocatedMemorySupported());
+        mThreadBean.setThreadAllocatedMemoryEnabled(true);
+        mThreadId = Thread.currentThread().getId();
+
+        long overhead = Long.MAX_VALUE;
+        for (int i = 0; i < 10; i++) {
+            final long start = allocatedBytes();
+            overhead = Math.min(overhead, allocatedBytes() - start);
+        }
+        mMeasurementOverhead = overhead;
+    }
+
+    @Test
+    public void stateUpdatesDoNotAllocate() {
+        final DrawerToggleState state = new DrawerToggleState();
+        slide(state);
+
+        final long start = allocatedBytes();
+        slide(state);
+        assertEquals(0, allocatedBytes() - start - mMeasurementOverhead);
+    }
+
+    @Test
+    public void interpolatorFramesDoNotAllocate() {
+        final LookupTableInterpolator interpolator =
+                new LookupTableInterpolator(new MaterialInterpolator());
+        animate(interpolator);
+
+        final long start = allocatedBytes();
+        animate(interpolator);
+        assertEquals(0, allocatedBytes() - start - mMeasurementOverhead);
+    }
+
+    private void slide(DrawerToggleState state) {
+        for (int i = 0; i < FRAMES; i++) {
+            // open and close with a back rotation every other pass
+            final float offset = (i % 200) / 100.0F;
+            state.setRotateDirectionBack(i % 400 < 200);
+            state.update(offset <= 1.0F ? offset : 2.0F - offset);
+            mSink += state.getPosition() + state.getImageState();
+        }
+    }
+
+    private void animate(LookupTableInterpolator interpolator) {
+        for (int i = 0; i < FRAMES; i++) {
+            mSink += interpolator.getInterpolation((i % 25) / 24.0F);
+        }
+    }
+
+    private long allocatedBytes() {
+        return mThreadBean.getThreadAllocatedBytes(mThreadId);
+    }
+}
@@ -0,0 +1,67 @@
+package ru.shmakinv.android.widget.customizableactionbardrawertoggle;
+
+import android.support.v4.widget.DrawerLayout;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * IndicatorResyncTest
+ * <p>
+ * Checks that unchanged indicator updates are only skipped on the callback paths, while
+ * {@link ActionBarDrawerToggle#syncState(android.os.Bundle)} always re-applies the indicator.
+ *
+ * @author Vyacheslav Shmakin
+ * @version 18.10.2026
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE, sdk = 27)
+public class IndicatorResyncTest {
+
+    private SlideTraceReplayTest.DelegateActivity mActivity;
+    private SlideTraceReplayTest.CountingDelegate mDelegate;
+    private ActionBarDrawerToggle mToggle;
+
+    @Before
+    public void setUp() {
+        mActivity = Robolectric.buildActivity(SlideTraceReplayTest.DelegateActivity.class)
+                .create().get();
+        mDelegate = mActivity.mDelegate;
+        mToggle = new ActionBarDrawerToggle(mActivity, new DrawerLayout(mActivity),
+                android.R.string.yes, android.R.string.no);
+        mToggle.syncState(null);
+        assertEquals(1, mDelegate.mUpIndicatorCalls);
+    }
+
+    @Test
+    public void syncStateReappliesIndicator() {
+        // e.g. the app has replaced the navigation icon behind the toggle's back
+        mToggle.syncState(null);
+        mToggle.syncState(null);
+        assertEquals(3, mDelegate.mUpIndicatorCalls);
+    }
+
+    @Test
+    public void setDrawerArrowDrawableReappliesIndicator() {
+        mToggle.setDrawerArrowDrawable(new DrawerArrowDrawableCompat(mActivity));
+        assertEquals(2, mDelegate.mUpIndicatorCalls);
+    }
+
+    @Test
+    public void callbacksSkipUnchangedIndicator() {
+        final int skipped = mToggle.getSkippedIndicatorUpdateCount();
+        mToggle.setDrawerIndicatorEnabled(true);
+        // the drawer is closed, so the description still is the "open drawer" one
+        mToggle.setActionBarDescription(android.R.string.yes);
+        mToggle.setActionBarDescription(android.R.string.yes);
+        assertEquals(1, mDelegate.mUpIndicatorCalls);
+        assertEquals(0, mDelegate.mDescriptionCalls);
+        assertEquals(skipped + 2, mToggle.getSkippedIndicatorUpdateCount());
+    }
+}
@@ -0,0 +1,120 @@
+package ru.shmakinv.android.widget.customizableactionbardrawertoggle;
+
+import android.app.ActionBar;
+import android.app.Activity;
+import android.content.res.Resources;
+import android.os.Build;
+import android.os.Bundle;
+import android.support.v4.widget.DrawerLayout;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.ImageView;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowView;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * LegacyActionBarLayoutTest
+ * <p>
+ * Counts the layout requests of the framework Action Bar caused by the toggle before JB MR2,
+ * where the up indicator is applied through the ICS delegate.
+ *
+ * @author Vyacheslav Shmakin
+ * @version 18.10.2026
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE, sdk = Build.VERSION_CODES.JELLY_BEAN_MR1)
+public class LegacyActionBarLayoutTest {
+
+    private static final int SYNC_COUNT = 10;
+
+    private HoloActivity mActivity;
+    private ActionBar mActionBar;
+    private ShadowView mActionBarView;
+    private ImageView mUpIndicatorView;
+    private ActionBarDrawerToggle mToggle;
+
+    @Before
+    public void setUp() {
+        mActivity = Robolectric.buildActivity(HoloActivity.class)
+                .create().start().resume().visible().get();
+        mActionBar = mActivity.getActionBar();
+        assertNotNull(mActionBar);
+        mActionBar.setDisplayHomeAsUpEnabled(true);
+        final View actionBarView = mActivity.getWindow().getDecorView().findViewById(
+                Resources.getSystem().getIdentifier("action_bar", "id", "android"));
+        assertNotNull(actionBarView);
+        mActionBarView = shadowOf(actionBarView);
+        // the up indicator is the sibling of android.R.id.home inside the home layout
+        final View home = mActivity.findViewById(android.R.id.home);
+        final ViewGroup homeLayout = (ViewGroup) home.getParent();
+        mUpIndicatorView = (ImageView) homeLayout.getChildAt(
+                homeLayout.getChildAt(0) == home ? 1 : 0);
+        mToggle = new ActionBarDrawerToggle(mActivity, mActivity.mDrawerLayout,
+                android.R.string.yes, android.R.string.no);
+    }
+
+    @Test
+    public void syncStateRequestsLayoutOnlyOnce() {
+        int layoutRequests = 0;
+        for (int i = 0; i < SYNC_COUNT; i++) {
+            mActionBarView.setDidRequestLayout(false);
+            mToggle.syncState(null);
+            assertSame(mToggle.getDrawerArrowDrawable(), mUpIndicatorView.getDrawable());
+            if (mActionBarView.didRequestLayout()) {
+                // only the first call may hide the home view
+                assertEquals(0, i);
+                layoutRequests++;
+            }
+        }
+        assertTrue(layoutRequests <= 1);
+        assertEquals(0, mActionBar.getDisplayOptions() & ActionBar.DISPLAY_SHOW_HOME);
+        assertTrue((mActionBar.getDisplayOptions() & ActionBar.DISPLAY_HOME_AS_UP) != 0);
+    }
+
+    @Test
+    public void indicatorChangesKeepDisplayOptions() {
+        mToggle.syncState(null);
+        final int displayOptions = mActionBar.getDisplayOptions();
+        for (int i = 0; i < SYNC_COUNT; i++) {
+            mActionBarView.setDidRequestLayout(false);
+            // switches between the theme up indicator and the drawer arrow
+            final boolean enabled = i % 2 != 0;
+            mToggle.setDrawerIndicatorEnabled(enabled);
+            if (enabled) {
+                assertSame(mToggle.getDrawerArrowDrawable(), mUpIndicatorView.getDrawable());
+            } else {
+                assertNotNull(mUpIndicatorView.getDrawable());
+                assertNotSame(mToggle.getDrawerArrowDrawable(), mUpIndicatorView.getDrawable());
+            }
+            assertFalse(mActionBarView.didRequestLayout());
+        }
+        assertEquals(displayOptions, mActionBar.getDisplayOptions());
+    }
+
+    public static class HoloActivity extends Activity {
+
+        DrawerLayout mDrawerLayout;
+
+        @Override
+        protected void onCreate(Bundle savedInstanceState) {
+            setTheme(android.R.style.Theme_Holo_Light_DarkActionBar);
+            super.onCreate(savedInstanceState);
+            mDrawerLayout = new DrawerLayout(this);
+            setContentView(mDrawerLayout);
+        }
+    }
+}
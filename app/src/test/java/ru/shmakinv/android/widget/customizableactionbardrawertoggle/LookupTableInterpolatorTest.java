@@ -0,0 +1,86 @@
+package ru.shmakinv.android.widget.customizableactionbardrawertoggle;
+
+import android.animation.TimeInterpolator;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * LookupTableInterpolatorTest
+ *
+ * @author Vyacheslav Shmakin
+ * @version 18.10.2026
+ */
+public class LookupTableInterpolatorTest {
+
+    private static final int SAMPLES = 100000;
+
+    // linear interpolation error bound h^2 / 8 * max|f''| with max|f''| = 12
+    private static final double DEFAULT_RESOLUTION_ERROR = 12.0
+            / (8.0 * LookupTableInterpolator.DEFAULT_RESOLUTION
+            * LookupTableInterpolator.DEFAULT_RESOLUTION);
+    // float rounding of the sampled values
+    private static final double FLOAT_TOLERANCE = 1e-6;
+
+    /**
+     * The original double precision curve of {@link MaterialInterpolator}.
+     */
+    private static double materialCurve(double x) {
+        return 6 * Math.pow(x, 2) - 8 * Math.pow(x, 3) + 3 * Math.pow(x, 4);
+    }
+
+    private static double maxError(TimeInterpolator interpolator) {
+        double maxError = 0;
+        for (int i = 0; i <= SAMPLES; i++) {
+            final float x = (float) i / SAMPLES;
+            final double error = Math.abs(interpolator.getInterpolation(x) - materialCurve(x));
+            maxError = Math.max(maxError, error);
+        }
+        return maxError;
+    }
+
+    @Test
+    public void defaultTableStaysWithinInterpolationBound() {
+        final double error = maxError(new LookupTableInterpolator(new MaterialInterpolator()));
+        assertTrue("max error " + error, error <= DEFAULT_RESOLUTION_ERROR + FLOAT_TOLERANCE);
+        assertTrue("max error " + error, error < 1e-4);
+    }
+
+    @Test
+    public void errorShrinksWithResolution() {
+        final double coarse = maxError(new LookupTableInterpolator(new MaterialInterpolator(), 16));
+        final double fine = maxError(new LookupTableInterpolator(new MaterialInterpolator(), 1024));
+        assertTrue("coarse " + coarse + ", fine " + fine, fine < coarse);
+        assertTrue("fine " + fine, fine < 2e-6);
+    }
+
+    @Test
+    public void hornerFormMatchesOriginalCurve() {
+        assertTrue(maxError(new MaterialInterpolator()) < FLOAT_TOLERANCE);
+    }
+
+    @Test
+    public void endpointsAreExact() {
+        final LookupTableInterpolator interpolator =
+                new LookupTableInterpolator(new MaterialInterpolator());
+        assertEquals(0.0F, interpolator.getInterpolation(0.0F), 0.0F);
+        assertEquals(1.0F, interpolator.getInterpolation(1.0F), 0.0F);
+        assertEquals(0.0F, interpolator.getInterpolation(-0.5F), 0.0F);
+        assertEquals(1.0F, interpolator.getInterpolation(1.5F), 0.0F);
+    }
+
+    @Test
+    public void exposesSourceAndResolution() {
+        final MaterialInterpolator source = new MaterialInterpolator();
+        final LookupTableInterpolator interpolator = new LookupTableInterpolator(source, 32);
+        assertEquals(source, interpolator.getSource());
+        assertEquals(32, interpolator.getResolution());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNonPositiveResolution() {
+        new LookupTableInterpolator(new MaterialInterpolator(), 0);
+    }
+}
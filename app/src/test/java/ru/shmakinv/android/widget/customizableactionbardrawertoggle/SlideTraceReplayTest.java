@@ -0,0 +1,407 @@
+package ru.shmakinv.android.widget.customizableactionbardrawertoggle;
+
+import android.app.Activity;
+import android.content.Context;
+import android.graphics.drawable.Drawable;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.v4.view.GravityCompat;
+import android.support.v4.widget.DrawerLayout;
+import android.view.View;
+import android.view.ViewGroup;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * SlideTraceReplayTest
+ * <p>
+ * Replays recorded drawer sessions against {@link ActionBarDrawerToggle} on a virtual clock
+ * and checks the work done and the time spent for every drawer callback and frame.
+ *
+ * @author Vyacheslav Shmakin
+ * @version 18.10.2026
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE, sdk = 27)
+public class SlideTraceReplayTest {
+
+    private static final long FRAME_NANOS = 16666667L;
+    private static final long EVENT_NANOS = 8000000L;
+    private static final long FLING_EVENT_NANOS = 4000000L;
+    private static final long VELOCITY_RESET_NANOS = 1000000000L;
+    private static final int SLIDE_EVENTS = 20;
+    private static final int TIMING_WARM_UP_REPLAYS = 20;
+    // wall time of the toggle per display frame, far below a 60 Hz frame even on Robolectric
+    private static final long FRAME_TIME_BUDGET_NANOS = 2000000L;
+    private static final float FRAME_TIME_PERCENTILE = 0.95F;
+
+    private VirtualScheduler mScheduler;
+    private IndicatorFrameDriver mDriver;
+    private CountingDelegate mDelegate;
+    private DrawerLayout mDrawerLayout;
+    private View mStartDrawer;
+    private View mEndDrawer;
+    private ActionBarDrawerToggle mToggle;
+
+    @Before
+    public void setUp() {
+        mScheduler = new VirtualScheduler();
+        mDriver = new IndicatorFrameDriver(mScheduler);
+        IndicatorFrameDriver.setInstance(mDriver);
+
+        final DelegateActivity activity = Robolectric.buildActivity(DelegateActivity.class)
+                .create().get();
+        mDelegate = activity.mDelegate;
+        mDrawerLayout = new DrawerLayout(activity);
+        mStartDrawer = addDrawer(activity, GravityCompat.START);
+        mEndDrawer = addDrawer(activity, GravityCompat.END);
+        mToggle = new ActionBarDrawerToggle(activity, mDrawerLayout,
+                android.R.string.yes, android.R.string.no);
+        mToggle.syncState(null);
+    }
+
+    @After
+    public void tearDown() {
+        IndicatorFrameDriver.setInstance(null);
+    }
+
+    @Test
+    public void replayKeepsDrawerSlotsAndLimitsWorkPerFrame() {
+        final byte[] trace = recordStartAndEndDrawerSession();
+        assertEquals(1, mDelegate.mUpIndicatorCalls);
+        assertEquals(0, mDelegate.mDescriptionCalls);
+
+        final FrameCheckingListener listener = new FrameCheckingListener();
+        mScheduler.mOrigin = mScheduler.mNow;
+        final int events = SlideTraceReplayer.replay(trace, mStartDrawer, mEndDrawer, listener,
+                mScheduler);
+        mScheduler.runFrame();
+
+        assertEquals(4 * SLIDE_EVENTS + 8, events);
+        // the end drawer peeks while the start drawer is open, the indicator has to stay open
+        assertEquals(0, listener.mEndDrawerInvalidations);
+        assertEquals(0.0F, mToggle.getDrawerArrowDrawable().getPosition(), 0.0F);
+        // one invalidation per start drawer event, plus one when the arrow flips at either end
+        assertTrue(mDelegate.mInvalidations > 0);
+        assertTrue(mDelegate.mInvalidations <= 2 * SLIDE_EVENTS + 2);
+        assertTrue(listener.mMaxInvalidationsPerEvent <= 2);
+        // slides never reach the delegate, opened and closed update the description once each
+        assertEquals(0, listener.mDelegateCallsOnSlide);
+        assertEquals(1, mDelegate.mUpIndicatorCalls);
+        assertEquals(2, mDelegate.mDescriptionCalls);
+        assertTrue(mScheduler.mFrames > 0);
+        assertTrue(mScheduler.mMaxDelegateCallsPerFrame <= 1);
+        assertTrue(mScheduler.mMaxInvalidationsPerFrame <= 1);
+    }
+
+    @Test
+    public void replayStaysWithinFrameTimeBudget() {
+        final byte[] trace = recordStartAndEndDrawerSession();
+        final FrameCheckingListener listener = new FrameCheckingListener();
+        for (int i = 0; i < TIMING_WARM_UP_REPLAYS; i++) {
+            replay(trace, listener);
+        }
+        mScheduler.mFrameTimes.clear();
+        replay(trace, listener);
+
+        final ArrayList<Long> frameTimes = mScheduler.mFrameTimes;
+        // 4 * SLIDE_EVENTS slides at about two slides per frame
+        assertTrue(frameTimes.size() >= SLIDE_EVENTS);
+        Collections.sort(frameTimes);
+        final long percentile = frameTimes.get((int) (frameTimes.size() * FRAME_TIME_PERCENTILE));
+        assertTrue("95th percentile of the frame times is " + percentile + " ns",
+                percentile <= FRAME_TIME_BUDGET_NANOS);
+    }
+
+    @Test
+    public void replayedFlingCompletesDeterministically() {
+        mToggle.setCompletionMode(ActionBarDrawerToggle.COMPLETION_MODE_VELOCITY);
+        final byte[] trace = recordFling();
+
+        final int fixedFrames = countCompletionFrames(null);
+        final int flingFrames = countCompletionFrames(trace);
+
+        // the remaining 0.6 positions take about 100 ms at the fling velocity instead of 240 ms
+        assertTrue(flingFrames <= fixedFrames / 2);
+        assertEquals(flingFrames, countCompletionFrames(trace));
+    }
+
+    private int countCompletionFrames(@Nullable byte[] trace) {
+        mToggle.syncState(null);
+        mScheduler.mNow += VELOCITY_RESET_NANOS;
+        if (trace != null) {
+            mScheduler.mOrigin = mScheduler.mNow;
+            SlideTraceReplayer.replay(trace, mStartDrawer, mEndDrawer, mToggle, mScheduler);
+        } else {
+            mToggle.onDrawerSlide(mStartDrawer, 0.4F);
+        }
+        mToggle.toggleIndicator(false);
+        int frames = 0;
+        while (mToggle.getDrawerArrowDrawable().getPosition() != 1.0F) {
+            assertTrue(frames < 100);
+            mScheduler.runFrame();
+            frames++;
+        }
+        return frames;
+    }
+
+    private void replay(byte[] trace, FrameCheckingListener listener) {
+        mScheduler.mOrigin = mScheduler.mNow;
+        SlideTraceReplayer.replay(trace, mStartDrawer, mEndDrawer, listener, mScheduler);
+        mScheduler.runFrame();
+    }
+
+    private byte[] recordStartAndEndDrawerSession() {
+        final SlideTraceRecorder recorder = new SlideTraceRecorder(null);
+        recorder.start();
+        recorder.onDrawerStateChanged(DrawerLayout.STATE_DRAGGING);
+        recordSlide(recorder, mStartDrawer, 0.0F, 1.0F);
+        recorder.onDrawerOpened(mStartDrawer);
+        recorder.onDrawerStateChanged(DrawerLayout.STATE_IDLE);
+
+        recorder.onDrawerStateChanged(DrawerLayout.STATE_DRAGGING);
+        recordSlide(recorder, mEndDrawer, 0.0F, 0.5F);
+        recordSlide(recorder, mEndDrawer, 0.5F, 0.0F);
+        recorder.onDrawerStateChanged(DrawerLayout.STATE_IDLE);
+
+        recorder.onDrawerStateChanged(DrawerLayout.STATE_DRAGGING);
+        recordSlide(recorder, mStartDrawer, 1.0F, 0.0F);
+        recorder.onDrawerClosed(mStartDrawer);
+        recorder.onDrawerStateChanged(DrawerLayout.STATE_IDLE);
+        recorder.stop();
+        return recorder.toByteArray();
+    }
+
+    private byte[] recordFling() {
+        final SlideTraceRecorder recorder = new SlideTraceRecorder(null);
+        recorder.start();
+        for (int i = 1; i <= 8; i++) {
+            mScheduler.mNow += FLING_EVENT_NANOS;
+            recorder.onDrawerSlide(mStartDrawer, 0.05F * i);
+        }
+        recorder.stop();
+        return recorder.toByteArray();
+    }
+
+    private void recordSlide(SlideTraceRecorder recorder, View drawer, float from, float to) {
+        for (int i = 1; i <= SLIDE_EVENTS; i++) {
+            mScheduler.mNow += EVENT_NANOS;
+            recorder.onDrawerSlide(drawer, from + (to - from) * i / SLIDE_EVENTS);
+        }
+    }
+
+    private View addDrawer(Context context, int gravity) {
+        final View drawer = new View(context);
+        mDrawerLayout.addView(drawer, new DrawerLayout.LayoutParams(
+                ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT, gravity));
+        return drawer;
+    }
+
+    /**
+     * Forwards the replayed events to the toggle and records the work done per event.
+     */
+    private final class FrameCheckingListener implements DrawerLayout.DrawerListener {
+
+        int mEndDrawerInvalidations;
+        int mMaxInvalidationsPerEvent;
+        int mDelegateCallsOnSlide;
+
+        @Override
+        public void onDrawerSlide(View drawerView, float slideOffset) {
+            final int invalidations = mDelegate.mInvalidations;
+            final int delegateCalls = mDelegate.mUpIndicatorCalls + mDelegate.mDescriptionCalls;
+            final long start = System.nanoTime();
+            mToggle.onDrawerSlide(drawerView, slideOffset);
+            mScheduler.mFrameWorkNanos += System.nanoTime() - start;
+            final int delta = mDelegate.mInvalidations - invalidations;
+            if (drawerView == mEndDrawer) {
+                mEndDrawerInvalidations += delta;
+            }
+            mMaxInvalidationsPerEvent = Math.max(mMaxInvalidationsPerEvent, delta);
+            mDelegateCallsOnSlide += mDelegate.mUpIndicatorCalls + mDelegate.mDescriptionCalls
+                    - delegateCalls;
+        }
+
+        @Override
+        public void onDrawerOpened(View drawerView) {
+            // DrawerLayout updates its state before it notifies the listeners
+            mDrawerLayout.openDrawer(getGravity(drawerView), false);
+            final long start = System.nanoTime();
+            mToggle.onDrawerOpened(drawerView);
+            mScheduler.mFrameWorkNanos += System.nanoTime() - start;
+        }
+
+        @Override
+        public void onDrawerClosed(View drawerView) {
+            mDrawerLayout.closeDrawer(getGravity(drawerView), false);
+            final long start = System.nanoTime();
+            mToggle.onDrawerClosed(drawerView);
+            mScheduler.mFrameWorkNanos += System.nanoTime() - start;
+        }
+
+        private int getGravity(View drawerView) {
+            return drawerView == mStartDrawer ? GravityCompat.START : GravityCompat.END;
+        }
+
+        @Override
+        public void onDrawerStateChanged(int newState) {
+            final long start = System.nanoTime();
+            mToggle.onDrawerStateChanged(newState);
+            mScheduler.mFrameWorkNanos += System.nanoTime() - start;
+        }
+    }
+
+    /**
+     * Virtual clock which runs the pending frames whenever the replay advances. Every display
+     * frame records the wall time spent in the toggle since the previous one.
+     */
+    private final class VirtualScheduler implements IndicatorFrameDriver.FrameScheduler,
+            SlideTraceReplayer.ReplayClock {
+
+        long mNow;
+        // time of the first replayed event
+        long mOrigin;
+        int mFrames;
+        int mMaxDelegateCallsPerFrame;
+        int mMaxInvalidationsPerFrame;
+        // wall time spent in the toggle during the current display frame
+        long mFrameWorkNanos;
+        final ArrayList<Long> mFrameTimes = new ArrayList<>();
+        private boolean mScheduled;
+        private long mVsyncNanos;
+
+        @Override
+        public void scheduleFrame() {
+            mScheduled = true;
+        }
+
+        @Override
+        public void cancelFrame() {
+            mScheduled = false;
+        }
+
+        @Override
+        public long nanoTime() {
+            return mNow;
+        }
+
+        @Override
+        public void advanceTo(long timeNanos) {
+            final long target = mOrigin + timeNanos;
+            if (mVsyncNanos <= mNow) {
+                // the clock has been moved forward directly
+                mVsyncNanos = (mNow / FRAME_NANOS + 1) * FRAME_NANOS;
+            }
+            while (mVsyncNanos <= target) {
+                mNow = mVsyncNanos;
+                mVsyncNanos += FRAME_NANOS;
+                if (mScheduled) {
+                    runScheduledFrame();
+                }
+                if (mFrameWorkNanos > 0) {
+                    mFrameTimes.add(mFrameWorkNanos);
+                    mFrameWorkNanos = 0;
+                }
+            }
+            mNow = target;
+        }
+
+        private void runScheduledFrame() {
+            mScheduled = false;
+            final int delegateCalls = mDelegate.mUpIndicatorCalls + mDelegate.mDescriptionCalls;
+            final int invalidations = mDelegate.mInvalidations;
+            final long start = System.nanoTime();
+            mDriver.doFrame(mNow);
+            mFrameWorkNanos += System.nanoTime() - start;
+            mFrames++;
+            mMaxDelegateCallsPerFrame = Math.max(mMaxDelegateCallsPerFrame,
+                    mDelegate.mUpIndicatorCalls + mDelegate.mDescriptionCalls - delegateCalls);
+            mMaxInvalidationsPerFrame = Math.max(mMaxInvalidationsPerFrame,
+                    mDelegate.mInvalidations - invalidations);
+        }
+
+        void runFrame() {
+            advanceTo(mNow - mOrigin + FRAME_NANOS);
+        }
+    }
+
+    /**
+     * Delegate which counts the Action Bar updates and the invalidations of the indicator.
+     */
+    static final class CountingDelegate implements ActionBarDrawerToggle.Delegate,
+            Drawable.Callback {
+
+        private final Context mContext;
+        int mUpIndicatorCalls;
+        int mDescriptionCalls;
+        int mInvalidations;
+
+        CountingDelegate(Context context) {
+            mContext = context;
+        }
+
+        @Override
+        public void setActionBarUpIndicator(Drawable upDrawable, int contentDescRes) {
+            mUpIndicatorCalls++;
+            // the Action Bar would draw the indicator from now on
+            upDrawable.setCallback(this);
+        }
+
+        @Override
+        public void setActionBarDescription(int contentDescRes) {
+            mDescriptionCalls++;
+        }
+
+        @Override
+        public Drawable getThemeUpIndicator() {
+            return null;
+        }
+
+        @Override
+        public Context getActionBarThemedContext() {
+            return mContext;
+        }
+
+        @Override
+        public boolean isNavigationVisible() {
+            return true;
+        }
+
+        @Override
+        public void invalidateDrawable(@NonNull Drawable who) {
+            mInvalidations++;
+        }
+
+        @Override
+        public void scheduleDrawable(@NonNull Drawable who, @NonNull Runnable what, long when) {
+        }
+
+        @Override
+        public void unscheduleDrawable(@NonNull Drawable who, @NonNull Runnable what) {
+        }
+    }
+
+    public static class DelegateActivity extends Activity
+            implements ActionBarDrawerToggle.DelegateProvider {
+
+        final CountingDelegate mDelegate = new CountingDelegate(this);
+
+        @Nullable
+        @Override
+        public ActionBarDrawerToggle.Delegate getDrawerToggleDelegate() {
+            return mDelegate;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package ru.shmakinv.android.widget.customizableactionbardrawertoggle;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.v4.widget.DrawerLayout;
+import android.view.Gravity;
+import android.view.View;
+
+/**
+ * SlideTraceReplayer
+ * <p>
+ * Decodes traces written by {@link SlideTraceRecorder} and replays them against a
+ * {@link DrawerLayout.DrawerListener}, e.g. {@link ActionBarDrawerToggle}.
+ *
+ * @author Vyacheslav Shmakin
+ * @version 18.10.2026
+ */
+final class SlideTraceReplayer {
+
+    /**
+     * Receives the recorded event time before each replayed event.
+     */
+    interface ReplayClock {
+
+        /**
+         * @param timeNanos time of the next event, relative to the first recorded event
+         */
+        void advanceTo(long timeNanos);
+    }
+
+    private SlideTraceReplayer() {
+    }
+
+    /**
+     * Replays a recorded trace. Events are delivered synchronously and in order; the recorded
+     * timing is only passed to the clock, so the replay is deterministic.
+     *
+     * @param trace       trace created by {@link SlideTraceRecorder#toByteArray()}
+     * @param leftDrawer  drawer view passed for events of the left drawer
+     * @param rightDrawer drawer view passed for events of the right drawer
+     * @param listener    listener receiving the events
+     * @param clock       virtual clock advanced before each event, may be null
+     * @return number of replayed events
+     * @throws IllegalArgumentException if the trace is malformed
+     */
+    static int replay(@NonNull byte[] trace, View leftDrawer, View rightDrawer,
+                      @NonNull DrawerLayout.DrawerListener listener,
+                      @Nullable ReplayClock clock) {
+        if (trace.length < SlideTraceRecorder.HEADER_SIZE
+                || trace[0] != SlideTraceRecorder.MAGIC_0
+                || trace[1] != SlideTraceRecorder.MAGIC_1
+                || trace[2] != SlideTraceRecorder.VERSION) {
+            throw new IllegalArgumentException("Not a slide trace");
+        }
+        final int[] position = {SlideTraceRecorder.HEADER_SIZE};
+        long timeNanos = 0;
+        int events = 0;
+        while (position[0] < trace.length) {
+            final byte type = trace[position[0]++];
+            timeNanos += readVarLong(trace, position) * SlideTraceRecorder.NANOS_PER_MICRO;
+            if (clock != null) {
+                clock.advanceTo(timeNanos);
+            }
+            if (type == SlideTraceRecorder.EVENT_STATE_CHANGED) {
+                listener.onDrawerStateChanged(readByte(trace, position));
+                events++;
+                continue;
+            }
+            final View drawerView = readByte(trace, position) == Gravity.RIGHT
+                    ? rightDrawer : leftDrawer;
+            switch (type) {
+                case SlideTraceRecorder.EVENT_SLIDE:
+                    listener.onDrawerSlide(drawerView,
+                            Float.intBitsToFloat(readInt(trace, position)));
+                    break;
+                case SlideTraceRecorder.EVENT_OPENED:
+                    listener.onDrawerOpened(drawerView);
+                    break;
+                case SlideTraceRecorder.EVENT_CLOSED:
+                    listener.onDrawerClosed(drawerView);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown slide trace event " + type);
+            }
+            events++;
+        }
+        return events;
+    }
+
+    private static byte readByte(byte[] trace, int[] position) {
+        checkAvailable(trace, position[0], 1);
+        return trace[position[0]++];
+    }
+
+    private static long readVarLong(byte[] trace, int[] position) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            if (shift > 63) {
+                throw new IllegalArgumentException("Malformed slide trace");
+            }
+            b = readByte(trace, position);
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    private static int readInt(byte[] trace, int[] position) {
+        checkAvailable(trace, position[0], 4);
+        final int p = position[0];
+        position[0] = p + 4;
+        return (trace[p] & 0xFF) << 24
+                | (trace[p + 1] & 0xFF) << 16
+                | (trace[p + 2] & 0xFF) << 8
+                | (trace[p + 3] & 0xFF);
+    }
+
+    private static void checkAvailable(byte[] trace, int position, int count) {
+        if (position + count > trace.length) {
+            throw new IllegalArgumentException("Truncated slide trace");
+        }
+    }
+}
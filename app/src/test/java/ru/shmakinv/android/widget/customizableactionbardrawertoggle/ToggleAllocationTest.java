@@ -0,0 +1,242 @@
+package ru.shmakinv.android.widget.customizableactionbardrawertoggle;
+
+import android.content.Context;
+import android.support.v4.view.GravityCompat;
+import android.support.v4.widget.DrawerLayout;
+import android.view.View;
+import android.view.ViewGroup;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * ToggleAllocationTest
+ * <p>
+ * Drives a real {@link ActionBarDrawerToggle} through drawer callbacks and indicator frames on a
+ * virtual frame scheduler and guards the steady state against heap allocations. Robolectric's
+ * ShadowDrawable calls through reflectively on every {@code invalidateSelf()}, so the cost of one
+ * invalidation is measured up front and subtracted for every invalidation of the indicator.
+ *
+ * @author Vyacheslav Shmakin
+ * @version 18.10.2026
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE, sdk = 27)
+public class ToggleAllocationTest {
+
+    private static final int SLIDE_EVENTS = 10000;
+    // slide events per drag, the drawer opens during the first and closes during the second half
+    private static final int DRAG_EVENTS = 100;
+    private static final int COMPLETION_FRAMES = 30;
+    private static final int TOGGLES = 200;
+    // frames after which every other toggle is reversed
+    private static final int REVERSE_FRAMES = 5;
+    // animation runs are short, one-time work of the JIT and the sandbox needs a few of them
+    private static final int ANIMATION_WARM_UP_RUNS = 3;
+    private static final long FRAME_NANOS = 16666667L;
+    private static final long EVENT_NANOS = 8000000L;
+
+    private com.sun.management.ThreadMXBean mThreadBean;
+    private long mThreadId;
+    private long mMeasurementOverhead;
+    private long mInvalidationBytes;
+
+    private VirtualFrameScheduler mScheduler;
+    private SlideTraceReplayTest.CountingDelegate mDelegate;
+    private DrawerLayout mDrawerLayout;
+    private View mStartDrawer;
+    private View mEndDrawer;
+    private ActionBarDrawerToggle mToggle;
+    private float mSink;
+
+    @Before
+    public void setUp() {
+        final java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        mThreadBean = (com.sun.management.ThreadMXBean) bean;
+        assumeTrue(mThreadBean.isThreadAllocatedMemorySupported());
+        mThreadBean.setThreadAllocatedMemoryEnabled(true);
+        mThreadId = Thread.currentThread().getId();
+
+        long overhead = Long.MAX_VALUE;
+        for (int i = 0; i < 10; i++) {
+            final long start = allocatedBytes();
+            overhead = Math.min(overhead, allocatedBytes() - start);
+        }
+        mMeasurementOverhead = overhead;
+
+        mScheduler = new VirtualFrameScheduler();
+        IndicatorFrameDriver.setInstance(mScheduler.mDriver);
+
+        final SlideTraceReplayTest.DelegateActivity activity =
+                Robolectric.buildActivity(SlideTraceReplayTest.DelegateActivity.class)
+                        .create().get();
+        mDelegate = activity.mDelegate;
+        mDrawerLayout = new DrawerLayout(activity);
+        mStartDrawer = addDrawer(activity, GravityCompat.START);
+        mEndDrawer = addDrawer(activity, GravityCompat.END);
+        mToggle = new ActionBarDrawerToggle(activity, mDrawerLayout,
+                android.R.string.yes, android.R.string.no);
+        mToggle.setCompletionMode(ActionBarDrawerToggle.COMPLETION_MODE_VELOCITY);
+        mToggle.setIndicatorStateListener(new IndicatorStateListener() {
+            @Override
+            public void onIndicatorStateChanged(float position, int imageState, int drawerState) {
+                mSink += position + imageState + drawerState;
+            }
+        });
+        mToggle.syncState(null);
+
+        final DrawerArrowDrawableCompat arrow = mToggle.getDrawerArrowDrawable();
+        arrow.invalidateSelf();
+        final long start = allocatedBytes();
+        arrow.invalidateSelf();
+        mInvalidationBytes = allocatedBytes() - start - mMeasurementOverhead;
+    }
+
+    @After
+    public void tearDown() {
+        IndicatorFrameDriver.setInstance(null);
+    }
+
+    @Test
+    public void slidesAndFramesDoNotAllocate() {
+        slide();
+
+        final int invalidations = mDelegate.mInvalidations;
+        final long start = allocatedBytes();
+        slide();
+        assertEquals(0, getAllocatedBytesSince(start, invalidations));
+        assertTrue(mScheduler.mFrames > 0);
+        assertEquals(0.0F, mToggle.getDrawerArrowDrawable().getPosition(), 0.0F);
+    }
+
+    @Test
+    public void indicatorAnimationsDoNotAllocate() {
+        for (int i = 0; i < ANIMATION_WARM_UP_RUNS; i++) {
+            animate();
+        }
+
+        final int invalidations = mDelegate.mInvalidations;
+        final long start = allocatedBytes();
+        animate();
+        assertEquals(0, getAllocatedBytesSince(start, invalidations));
+        assertEquals(0.0F, mToggle.getDrawerArrowDrawable().getPosition(), 0.0F);
+    }
+
+    /**
+     * Drags the start and the end drawer in turns, a frame is drawn every other event. Each drag
+     * is released just before the drawer closes and completed by an animation.
+     */
+    private void slide() {
+        for (int i = 0; i < SLIDE_EVENTS; i++) {
+            final int step = i % DRAG_EVENTS;
+            final View drawer = (i / DRAG_EVENTS) % 2 == 0 ? mStartDrawer : mEndDrawer;
+            if (step == 0) {
+                mToggle.onDrawerStateChanged(DrawerLayout.STATE_DRAGGING);
+            }
+            mScheduler.mNow += EVENT_NANOS;
+            final float offset = 2.0F * step / DRAG_EVENTS;
+            mToggle.onDrawerSlide(drawer, offset <= 1.0F ? offset : 2.0F - offset);
+            if (i % 2 != 0) {
+                mScheduler.runFrame();
+            }
+            if (step == DRAG_EVENTS - 1) {
+                mToggle.onDrawerStateChanged(DrawerLayout.STATE_SETTLING);
+                mToggle.animateDrawer(mToggle.getDrawerArrowDrawable().getPosition(), 0.0F);
+                mScheduler.runFrames(COMPLETION_FRAMES);
+                mToggle.onDrawerSlide(drawer, 0.0F);
+                mToggle.onDrawerClosed(drawer);
+                mToggle.onDrawerStateChanged(DrawerLayout.STATE_IDLE);
+            }
+        }
+        mScheduler.runFrame();
+    }
+
+    /**
+     * Toggles the indicator back and forth, reversing every other animation half way, and runs
+     * the frames until the animations are done.
+     */
+    private void animate() {
+        for (int i = 0; i < TOGGLES; i++) {
+            mToggle.toggleIndicator(i % 4 < 2);
+            if (i % 2 == 0) {
+                mScheduler.runFrames(REVERSE_FRAMES);
+                mToggle.toggleIndicator(false);
+            }
+            mScheduler.runFrames(COMPLETION_FRAMES);
+        }
+        mToggle.animateDrawer(1.0F, 0.0F);
+        mScheduler.runFrames(COMPLETION_FRAMES);
+    }
+
+    private View addDrawer(Context context, int gravity) {
+        final View drawer = new View(context);
+        mDrawerLayout.addView(drawer, new DrawerLayout.LayoutParams(
+                ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT, gravity));
+        return drawer;
+    }
+
+    /**
+     * @return bytes allocated by the toggle since start, without the invalidation overhead
+     */
+    private long getAllocatedBytesSince(long start, int invalidations) {
+        final long bytes = allocatedBytes() - start - mMeasurementOverhead;
+        return bytes - (mDelegate.mInvalidations - invalidations) * mInvalidationBytes;
+    }
+
+    private long allocatedBytes() {
+        return mThreadBean.getThreadAllocatedBytes(mThreadId);
+    }
+
+    /**
+     * Frame scheduler on a virtual clock, frames only run when the test asks for them.
+     */
+    private static final class VirtualFrameScheduler implements IndicatorFrameDriver.FrameScheduler {
+
+        final IndicatorFrameDriver mDriver = new IndicatorFrameDriver(this);
+        long mNow;
+        int mFrames;
+        private boolean mScheduled;
+
+        @Override
+        public void scheduleFrame() {
+            mScheduled = true;
+        }
+
+        @Override
+        public void cancelFrame() {
+            mScheduled = false;
+        }
+
+        @Override
+        public long nanoTime() {
+            return mNow;
+        }
+
+        void runFrame() {
+            mNow += FRAME_NANOS;
+            if (mScheduled) {
+                mScheduled = false;
+                mDriver.doFrame(mNow);
+                mFrames++;
+            }
+        }
+
+        void runFrames(int count) {
+            for (int i = 0; i < count; i++) {
+                runFrame();
+            }
+        }
+    }
+}
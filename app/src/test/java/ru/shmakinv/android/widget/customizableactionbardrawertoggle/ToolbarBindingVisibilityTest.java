@@ -0,0 +1,123 @@
+package ru.shmakinv.android.widget.customizableactionbardrawertoggle;
+
+import android.app.Activity;
+import android.os.Bundle;
+import android.support.v4.view.GravityCompat;
+import android.support.v4.widget.DrawerLayout;
+import android.support.v7.widget.Toolbar;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+
+/**
+ * ToolbarBindingVisibilityTest
+ * <p>
+ * Checks that Toolbars scrolled off screen, like the Toolbars of other ViewPager pages, are
+ * not updated while the drawer slides and catch up once they are drawn again.
+ *
+ * @author Vyacheslav Shmakin
+ * @version 18.10.2026
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE, sdk = 27)
+public class ToolbarBindingVisibilityTest {
+
+    private static final int WIDTH = 480;
+    private static final int HEIGHT = 800;
+    private static final int TOOLBAR_HEIGHT = 112;
+
+    private ToolbarActivity mActivity;
+    private ActionBarDrawerToggle mToggle;
+    private View mDrawer;
+
+    @Before
+    public void setUp() {
+        mActivity = Robolectric.buildActivity(ToolbarActivity.class)
+                .create().start().resume().visible().get();
+        mDrawer = new View(mActivity);
+        mActivity.mDrawerLayout.addView(mDrawer, new DrawerLayout.LayoutParams(
+                ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT,
+                GravityCompat.START));
+        mToggle = new ActionBarDrawerToggle(mActivity, mActivity.mDrawerLayout,
+                mActivity.mMainToolbar, android.R.string.yes, android.R.string.no);
+        mToggle.syncState(null);
+        mToggle.addToolbar(mActivity.mPageToolbar);
+    }
+
+    @Test
+    public void offScreenToolbarCatchesUpWhenDrawn() {
+        // the second page is attached and visible, but laid out next to the shown one
+        moveToPage(mActivity.mPageToolbar, 1);
+        layout();
+        final DrawerArrowDrawableCompat mainArrow = getArrow(mActivity.mMainToolbar);
+        final DrawerArrowDrawableCompat pageArrow = getArrow(mActivity.mPageToolbar);
+        assertNotSame(mainArrow, pageArrow);
+
+        mToggle.onDrawerSlide(mDrawer, 0.5F);
+        assertEquals(0.5F, mainArrow.getPosition(), 0.0F);
+        assertEquals(0.0F, pageArrow.getPosition(), 0.0F);
+
+        // the pages are swapped
+        moveToPage(mActivity.mPageToolbar, 0);
+        moveToPage(mActivity.mMainToolbar, -1);
+        layout();
+        mToggle.onDrawerSlide(mDrawer, 0.75F);
+        assertEquals(0.5F, mainArrow.getPosition(), 0.0F);
+        assertEquals(0.75F, pageArrow.getPosition(), 0.0F);
+
+        moveToPage(mActivity.mMainToolbar, 0);
+        layout();
+        mActivity.mMainToolbar.getViewTreeObserver().dispatchOnPreDraw();
+        assertEquals(0.75F, mainArrow.getPosition(), 0.0F);
+    }
+
+    private DrawerArrowDrawableCompat getArrow(Toolbar toolbar) {
+        return (DrawerArrowDrawableCompat) toolbar.getNavigationIcon();
+    }
+
+    private void moveToPage(View toolbar, int page) {
+        final ViewGroup.MarginLayoutParams params =
+                (ViewGroup.MarginLayoutParams) toolbar.getLayoutParams();
+        params.leftMargin = page * WIDTH;
+        params.rightMargin = -page * WIDTH;
+        toolbar.setLayoutParams(params);
+    }
+
+    private void layout() {
+        final View decor = mActivity.getWindow().getDecorView();
+        decor.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+        decor.layout(0, 0, WIDTH, HEIGHT);
+    }
+
+    public static class ToolbarActivity extends Activity {
+
+        DrawerLayout mDrawerLayout;
+        Toolbar mMainToolbar;
+        Toolbar mPageToolbar;
+
+        @Override
+        protected void onCreate(Bundle savedInstanceState) {
+            super.onCreate(savedInstanceState);
+            final FrameLayout pages = new FrameLayout(this);
+            mMainToolbar = new Toolbar(this);
+            mPageToolbar = new Toolbar(this);
+            pages.addView(mMainToolbar, new FrameLayout.LayoutParams(
+                    ViewGroup.LayoutParams.MATCH_PARENT, TOOLBAR_HEIGHT));
+            pages.addView(mPageToolbar, new FrameLayout.LayoutParams(
+                    ViewGroup.LayoutParams.MATCH_PARENT, TOOLBAR_HEIGHT));
+            setContentView(pages);
+            mDrawerLayout = new DrawerLayout(this);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package android.animation;
+
+/**
+ * Stub of the framework interface, the benchmarks only need its signature.
+ */
+public interface TimeInterpolator {
+
+    float getInterpolation(float input);
+}
@@ -0,0 +1,9 @@
+package android.view.animation;
+
+import android.animation.TimeInterpolator;
+
+/**
+ * Stub of the framework interface, the benchmarks only need its signature.
+ */
+public interface Interpolator extends TimeInterpolator {
+}
@@ -0,0 +1,62 @@
+package ru.shmakinv.android.widget.customizableactionbardrawertoggle;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * DrawerToggleStateBenchmark
+ * <p>
+ * Measures {@link DrawerToggleState#update(float)}, the work done for every drawer slide event,
+ * with a drawer being dragged open and closed again. Pushing the position into
+ * {@link DrawerArrowDrawableCompat#setPosition(float)} is out of scope, it needs the
+ * drawable, Paint and Path classes of the Android framework.
+ *
+ * @author Vyacheslav Shmakin
+ * @version 18.10.2026
+ */
+@State(Scope.Thread)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DrawerToggleStateBenchmark {
+
+    // a power of two, so the index can wrap with a mask
+    private static final int OFFSETS = 256;
+
+    private final float[] mOffsets = new float[OFFSETS];
+    private DrawerToggleState mState;
+    private int mIndex;
+
+    @Setup
+    public void setUp() {
+        // open in half of the events and close in the other half, both ends included
+        final int half = OFFSETS / 2;
+        for (int i = 0; i < half; i++) {
+            mOffsets[i] = (float) i / (half - 1);
+            mOffsets[OFFSETS - 1 - i] = mOffsets[i];
+        }
+        mState = new DrawerToggleState();
+        mIndex = 0;
+    }
+
+    @Benchmark
+    public boolean slide() {
+        mIndex = (mIndex + 1) & (OFFSETS - 1);
+        return mState.update(mOffsets[mIndex]);
+    }
+
+    @Benchmark
+    public boolean slideRotateDirectionBack() {
+        mIndex = (mIndex + 1) & (OFFSETS - 1);
+        if (mIndex == 0) {
+            // auto reset clears it once the drawer has been opened
+            mState.setRotateDirectionBack(true);
+        }
+        return mState.update(mOffsets[mIndex]);
+    }
+}
@@ -0,0 +1,61 @@
+package ru.shmakinv.android.widget.customizableactionbardrawertoggle;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * InterpolatorBenchmark
+ * <p>
+ * Measures a single {@code getInterpolation} call of {@link MaterialInterpolator} and of a
+ * {@link LookupTableInterpolator} sampled from it, i.e. the curve evaluation of one animation
+ * frame, as well as sampling the table.
+ *
+ * @author Vyacheslav Shmakin
+ * @version 18.10.2026
+ */
+@State(Scope.Thread)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InterpolatorBenchmark {
+
+    // a power of two, so the index can wrap with a mask
+    private static final int INPUTS = 256;
+
+    private final float[] mInputs = new float[INPUTS];
+    private MaterialInterpolator mMaterialInterpolator;
+    private LookupTableInterpolator mLookupTableInterpolator;
+    private int mIndex;
+
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < INPUTS; i++) {
+            mInputs[i] = (float) i / (INPUTS - 1);
+        }
+        mMaterialInterpolator = new MaterialInterpolator();
+        mLookupTableInterpolator = new LookupTableInterpolator(mMaterialInterpolator);
+        mIndex = 0;
+    }
+
+    @Benchmark
+    public float material() {
+        mIndex = (mIndex + 1) & (INPUTS - 1);
+        return mMaterialInterpolator.getInterpolation(mInputs[mIndex]);
+    }
+
+    @Benchmark
+    public float lookupTable() {
+        mIndex = (mIndex + 1) & (INPUTS - 1);
+        return mLookupTableInterpolator.getInterpolation(mInputs[mIndex]);
+    }
+
+    @Benchmark
+    public LookupTableInterpolator lookupTableSampling() {
+        return new LookupTableInterpolator(mMaterialInterpolator);
+    }
+}